@@ -0,0 +1,60 @@
+package com.loadbalancer.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs a benchmark selection once per thread count, always with the GC profiler
+ * (gc.alloc.rate.norm = bytes allocated per op), and writes one JSON report per
+ * thread count so results can be diffed between releases:
+ *
+ *   java -cp target/benchmarks.jar com.loadbalancer.benchmark.BenchmarkRunner \
+ *        [include-regex] [thread-counts] [report-dir]
+ *
+ * Defaults: LoadBalancerBenchmark, "1,2,4,max", target/jmh-reports
+ * (pass "LoadBalancerBenchmark|SoftmaxTemperatureBenchmark" to include the τ regimes)
+ * → target/jmh-reports/jmh-t1.json, jmh-t2.json, …
+ *
+ * Any further arguments are passed to JMH as "-p name=v1,v2" style parameter overrides,
+ * e.g.  serverCount=5,1000  algorithm=softmax,sumTree
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include    = args.length > 0 ? args[0] : LoadBalancerBenchmark.class.getSimpleName();
+        String threadList = args.length > 1 ? args[1] : "1,2,4,max";
+        File reportDir    = new File(args.length > 2 ? args[2] : "target/jmh-reports");
+        reportDir.mkdirs();
+
+        for (String threadSpec : threadList.split(",")) {
+            int threads = "max".equalsIgnoreCase(threadSpec.trim())
+                    ? Runtime.getRuntime().availableProcessors()
+                    : Integer.parseInt(threadSpec.trim());
+            String label = "max".equalsIgnoreCase(threadSpec.trim()) ? "max" : String.valueOf(threads);
+            File report = new File(reportDir, "jmh-t" + label + ".json");
+
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(report.getPath());
+
+            for (int i = 3; i < args.length; i++) {
+                String[] override = args[i].split("=", 2);
+                options.param(override[0], override[1].split(","));
+            }
+
+            Options built = options.build();
+            System.out.printf("%n>>> %s with %d thread(s) -> %s%n", include, threads, report.getPath());
+            new Runner(built).run();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.algorithm.ConcurrentSoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.model.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded throughput of a shared balancer instance: the lock-free
+ * {@link ConcurrentSoftmaxLoadBalancer} vs. a {@link SoftmaxLoadBalancer} behind one lock.
+ *
+ * Throughput should grow with the thread count for "concurrent" and stay flat
+ * (or drop) for "locked". Compare runs with increasing -t, e.g.:
+ *
+ *   java -jar target/benchmarks.jar ConcurrentSoftmaxBenchmark -t 1
+ *   java -jar target/benchmarks.jar ConcurrentSoftmaxBenchmark -t 4
+ *   java -jar target/benchmarks.jar ConcurrentSoftmaxBenchmark -t max
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentSoftmaxBenchmark {
+
+    @Param({"5", "100", "1000"})
+    public int serverCount;
+
+    @Param({"concurrent", "locked"})
+    public String impl;
+
+    private List<Server> servers;
+    private LoadBalancer balancer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        servers = new ArrayList<>(serverCount);
+        for (int i = 0; i < serverCount; i++) {
+            servers.add(new Server(i, 20.0 + (i % 10) * 10.0, 5.0, 0.05, 10.0));
+        }
+        balancer = "concurrent".equals(impl)
+                ? new ConcurrentSoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15)
+                : new LockedLoadBalancer(new SoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15));
+    }
+
+    @State(Scope.Thread)
+    public static class Feedback {
+        int tick;
+    }
+
+    @Benchmark
+    public int selectAndUpdate(Feedback feedback) {
+        int selected = balancer.selectServer(servers);
+        balancer.updateReward(selected, 20.0 + (selected % 10) * 10.0 + (feedback.tick++ & 7));
+        return selected;
+    }
+
+    /**
+     * The naive way to share a single-threaded balancer: one monitor around every call.
+     */
+    static final class LockedLoadBalancer implements LoadBalancer {
+        private final LoadBalancer delegate;
+
+        LockedLoadBalancer(LoadBalancer delegate) { this.delegate = delegate; }
+
+        @Override
+        public synchronized int selectServer(List<Server> servers) { return delegate.selectServer(servers); }
+
+        @Override
+        public synchronized void updateReward(int serverIndex, double latency) {
+            delegate.updateReward(serverIndex, latency);
+        }
+
+        @Override
+        public String getAlgorithmName() { return delegate.getAlgorithmName() + " (locked)"; }
+
+        @Override
+        public synchronized void reset() { delegate.reset(); }
+    }
+}
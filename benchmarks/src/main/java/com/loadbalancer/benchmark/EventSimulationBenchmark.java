@@ -0,0 +1,52 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.simulation.ArrivalProcess;
+import com.loadbalancer.simulation.BurstyArrivalProcess;
+import com.loadbalancer.simulation.DiurnalArrivalProcess;
+import com.loadbalancer.simulation.EventDrivenSimulation;
+import com.loadbalancer.simulation.PoissonArrivalProcess;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one million requests (two million events) through the discrete-event engine
+ * with a Softmax balancer per iteration. Events per second = 2e6 / score.
+ *
+ *   java -jar target/benchmarks.jar EventSimulationBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSimulationBenchmark {
+
+    private static final int SERVER_COUNT = 5;
+    private static final int REQUESTS = 1_000_000;
+
+    @Param({"poisson", "bursty", "diurnal"})
+    public String arrivals;
+
+    private EventDrivenSimulation simulation;
+    private SoftmaxLoadBalancer softmax;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrivalProcess process = switch (arrivals) {
+            case "poisson" -> new PoissonArrivalProcess(50_000);
+            case "bursty"  -> new BurstyArrivalProcess(20_000, 200_000, 90, 10);
+            case "diurnal" -> new DiurnalArrivalProcess(50_000, 0.8, 5_000);
+            default -> throw new IllegalArgumentException("Unknown arrival process: " + arrivals);
+        };
+        simulation = new EventDrivenSimulation(SERVER_COUNT, REQUESTS, process, true, 100_000, 42L);
+        softmax = new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.001, 0.15);
+    }
+
+    @Benchmark
+    public double run1M() {
+        return simulation.run(softmax).getMeanLatency();
+    }
+}
@@ -0,0 +1,184 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.algorithm.ConcurrentSoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.DiscountedUcbLoadBalancer;
+import com.loadbalancer.algorithm.LeastOutstandingLoadBalancer;
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.algorithm.PeakEwmaLoadBalancer;
+import com.loadbalancer.algorithm.PowerOfTwoChoicesLoadBalancer;
+import com.loadbalancer.algorithm.RandomLoadBalancer;
+import com.loadbalancer.algorithm.RoundRobinLoadBalancer;
+import com.loadbalancer.algorithm.SlidingWindowUcbLoadBalancer;
+import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.SumTreeSoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.ThompsonSamplingLoadBalancer;
+import com.loadbalancer.model.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/op of selectServer and updateReward for every LoadBalancer implementation.
+ *
+ * Parameters:
+ *   algorithm    — roundRobin, random, softmax, softmaxAlias, softmaxGumbel, sumTree, concurrentSoftmax,
+ *                  powerOfTwo, peakEwma, leastOutstanding, discountedUcb, slidingWindowUcb, thompson
+ *   serverCount  — 5 … 100 000
+ *
+ * Softmax variants run with Main's cooling schedule (τ 2.0 → 0.1 at 0.001/step); the
+ * explore / exploit regimes are measured separately by {@link SoftmaxTemperatureBenchmark},
+ * so algorithms without a temperature are not run three times.
+ *
+ * Threads: thread-safe algorithms (roundRobin, random, concurrentSoftmax, powerOfTwo, peakEwma,
+ * leastOutstanding) share one instance across all benchmark threads; the others get one
+ * instance per thread, so multi-threaded runs measure contention only where sharing is
+ * actually supported.
+ *
+ * Use {@link BenchmarkRunner} to run the whole matrix with the GC profiler
+ * (allocation per op) and JSON reports, or plain JMH for a subset:
+ *
+ *   java -jar target/benchmarks.jar LoadBalancerBenchmark -p algorithm=softmax -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadBalancerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Cluster {
+
+        @Param({"roundRobin", "random", "softmax", "softmaxAlias", "softmaxGumbel", "sumTree", "concurrentSoftmax",
+                "powerOfTwo", "peakEwma", "leastOutstanding", "discountedUcb", "slidingWindowUcb",
+                "thompson"})
+        public String algorithm;
+
+        @Param({"5", "100", "1000", "10000", "100000"})
+        public int serverCount;
+
+        List<Server> servers;
+        double[] latencies;
+        LoadBalancer shared;      // only for thread-safe algorithms
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            latencies = createLatencies(serverCount);
+            servers = createServers(latencies);
+            if (isThreadSafe(algorithm)) {
+                shared = createBalancer();
+            }
+        }
+
+        LoadBalancer createBalancer() {
+            return LoadBalancerBenchmark.createBalancer(algorithm, serverCount, "decay", latencies);
+        }
+    }
+
+    static double[] createLatencies(int serverCount) {
+        double[] latencies = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            latencies[i] = 20.0 + (i % 10) * 10.0;
+        }
+        return latencies;
+    }
+
+    static List<Server> createServers(double[] latencies) {
+        List<Server> servers = new ArrayList<>(latencies.length);
+        for (int i = 0; i < latencies.length; i++) {
+            servers.add(new Server(i, latencies[i], 5.0, 0.05, 10.0));
+        }
+        return servers;
+    }
+
+    static boolean isThreadSafe(String algorithm) {
+        return "roundRobin".equals(algorithm) || "random".equals(algorithm)
+                || "concurrentSoftmax".equals(algorithm) || "powerOfTwo".equals(algorithm)
+                || "peakEwma".equals(algorithm) || "leastOutstanding".equals(algorithm);
+    }
+
+    /**
+     * @param temperature explore (τ = 5, fixed), exploit (τ = 0.05, fixed) or
+     *                    decay (τ 2.0 → 0.1 at 0.001/step); ignored by non-Softmax algorithms
+     */
+    static LoadBalancer createBalancer(String algorithm, int serverCount, String temperature, double[] latencies) {
+        double t0;
+        double tMin;
+        double decay;
+        switch (temperature) {
+            case "explore" -> { t0 = 5.0;  tMin = 5.0;  decay = 0.0; }
+            case "exploit" -> { t0 = 0.05; tMin = 0.05; decay = 0.0; }
+            default        -> { t0 = 2.0;  tMin = 0.1;  decay = 0.001; }
+        }
+        LoadBalancer balancer = switch (algorithm) {
+            case "roundRobin"        -> new RoundRobinLoadBalancer();
+            case "random"            -> new RandomLoadBalancer();
+            case "softmax"           -> new SoftmaxLoadBalancer(serverCount, t0, tMin, decay, 0.15);
+            case "softmaxAlias"      -> new SoftmaxLoadBalancer(serverCount, t0, tMin, decay, 0.15,
+                    SoftmaxLoadBalancer.SamplingStrategy.ALIAS);
+            case "softmaxGumbel"     -> new SoftmaxLoadBalancer(serverCount, t0, tMin, decay, 0.15,
+                    SoftmaxLoadBalancer.SamplingStrategy.GUMBEL_MAX);
+            case "sumTree"           -> new SumTreeSoftmaxLoadBalancer(serverCount, t0, tMin, decay, 0.15);
+            case "concurrentSoftmax" -> new ConcurrentSoftmaxLoadBalancer(serverCount, t0, tMin, decay, 0.15);
+            case "powerOfTwo"        -> new PowerOfTwoChoicesLoadBalancer(serverCount, 0.15);
+            case "peakEwma"          -> new PeakEwmaLoadBalancer(serverCount);
+            case "leastOutstanding"  -> new LeastOutstandingLoadBalancer(serverCount);
+            case "discountedUcb"     -> new DiscountedUcbLoadBalancer(serverCount);
+            case "slidingWindowUcb"  -> new SlidingWindowUcbLoadBalancer(serverCount);
+            case "thompson"          -> new ThompsonSamplingLoadBalancer(serverCount);
+            default -> throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        };
+        // Start from learned, distinct Q-values rather than the all-zero prior
+        for (int i = 0; i < serverCount; i++) {
+            balancer.updateReward(i, latencies[i]);
+        }
+        return balancer;
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+        LoadBalancer balancer;
+        List<Server> servers;
+        double[] latencies;
+        int nextServer;           // updateOnly's target, wraps at latencies.length
+        int jitter;               // 0..7 ms added to each reported latency
+
+        @Setup(Level.Trial)
+        public void setUp(Cluster cluster) {
+            balancer = isThreadSafe(cluster.algorithm) ? cluster.shared : cluster.createBalancer();
+            servers = cluster.servers;
+            latencies = cluster.latencies;
+        }
+
+        int nextUpdateServer() {
+            int serverIndex = nextServer;
+            if (++nextServer == latencies.length) nextServer = 0;
+            return serverIndex;
+        }
+
+        double nextLatency(int serverIndex) {
+            jitter = (jitter + 1) & 7;
+            return latencies[serverIndex] + jitter;
+        }
+    }
+
+    @Benchmark
+    public int selectOnly(Worker worker) {
+        return worker.balancer.selectServer(worker.servers);
+    }
+
+    @Benchmark
+    public void updateOnly(Worker worker) {
+        int serverIndex = worker.nextUpdateServer();
+        worker.balancer.updateReward(serverIndex, worker.nextLatency(serverIndex));
+    }
+
+    @Benchmark
+    public int selectAndUpdate(Worker worker) {
+        int selected = worker.balancer.selectServer(worker.servers);
+        worker.balancer.updateReward(selected, worker.nextLatency(selected));
+        return selected;
+    }
+}
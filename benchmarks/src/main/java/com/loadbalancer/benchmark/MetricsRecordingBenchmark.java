@@ -0,0 +1,43 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.metrics.MetricsCollector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records 100 million requests into one MetricsCollector per iteration.
+ *
+ * At 12 bytes per request the raw series needs ~1.2 GB; the boxed ArrayList
+ * storage it replaces needed ~40 bytes per request and could not fit this run.
+ * Score is the wall time of one full 100M-request run (SingleShotTime).
+ *
+ *   java -jar target/benchmarks.jar MetricsRecordingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Thread)
+public class MetricsRecordingBenchmark {
+
+    private static final int REQUESTS = 100_000_000;
+
+    private MetricsCollector metrics;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        metrics = null;         // release the previous run's series before allocating again
+        System.gc();
+        metrics = new MetricsCollector("bench", 20.0, 100);
+    }
+
+    @Benchmark
+    public double record100M() {
+        for (int i = 0; i < REQUESTS; i++) {
+            metrics.record(i % 5, 20.0 + (i & 63));
+        }
+        return metrics.getRollingAverage();
+    }
+}
@@ -0,0 +1,77 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.SumTreeSoftmaxLoadBalancer;
+import com.loadbalancer.model.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of Softmax sampling with pool size: linear CDF ({@link SoftmaxLoadBalancer}),
+ * alias table (ALIAS strategy, default refresh cadence), Gumbel-max and sum-tree
+ * ({@link SumTreeSoftmaxLoadBalancer}).
+ *
+ * selectAndUpdate is the realistic case — every completion dirties one Q-value,
+ * so the linear variant pays an O(K) rebuild per request while the sum-tree pays O(log K).
+ *
+ * Run:  java -jar target/benchmarks.jar SamplingScalingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SamplingScalingBenchmark {
+
+    @Param({"5", "100", "1000", "10000", "100000"})
+    public int serverCount;
+
+    @Param({"softmax", "alias", "gumbel", "sumTree"})
+    public String sampler;
+
+    private List<Server> servers;
+    private LoadBalancer balancer;
+    private double[] latencies;
+    private int tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        servers = new ArrayList<>(serverCount);
+        latencies = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            servers.add(new Server(i, 20.0 + (i % 10) * 10.0, 5.0, 0.05, 10.0));
+            latencies[i] = 20.0 + (i % 10) * 10.0;
+        }
+
+        // Fixed τ: isolates sampling cost from the cooling schedule
+        switch (sampler) {
+            case "softmax" -> balancer = new SoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15);
+            case "alias"   -> balancer = new SoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15,
+                    SoftmaxLoadBalancer.SamplingStrategy.ALIAS);
+            case "gumbel"  -> balancer = new SoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15,
+                    SoftmaxLoadBalancer.SamplingStrategy.GUMBEL_MAX);
+            default        -> balancer = new SumTreeSoftmaxLoadBalancer(serverCount, 0.5, 0.5, 0.0, 0.15);
+        }
+
+        for (int i = 0; i < serverCount; i++) {
+            balancer.updateReward(i, latencies[i]);
+        }
+    }
+
+    @Benchmark
+    public int selectOnly() {
+        return balancer.selectServer(servers);
+    }
+
+    @Benchmark
+    public int selectAndUpdate() {
+        int selected = balancer.selectServer(servers);
+        balancer.updateReward(selected, latencies[selected] + (tick++ & 7));
+        return selected;
+    }
+}
@@ -0,0 +1,106 @@
+package com.loadbalancer.benchmark;
+
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.model.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/op of the Softmax family under each temperature regime — the one axis that only
+ * Softmax-based algorithms have, kept out of {@link LoadBalancerBenchmark}'s matrix.
+ *
+ * Parameters:
+ *   algorithm    — softmax, softmaxAlias, softmaxGumbel, sumTree, concurrentSoftmax
+ *   serverCount  — 5 … 100 000
+ *   temperature  — explore (τ = 5, fixed), exploit (τ = 0.05, fixed),
+ *                  decay (τ 2.0 → 0.1 at 0.001/step, as in Main)
+ *
+ * Threads: concurrentSoftmax shares one instance across all benchmark threads; the
+ * others get one instance per thread.
+ *
+ *   java -jar target/benchmarks.jar SoftmaxTemperatureBenchmark -p temperature=exploit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoftmaxTemperatureBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Cluster {
+
+        @Param({"softmax", "softmaxAlias", "softmaxGumbel", "sumTree", "concurrentSoftmax"})
+        public String algorithm;
+
+        @Param({"5", "100", "1000", "10000", "100000"})
+        public int serverCount;
+
+        @Param({"explore", "exploit", "decay"})
+        public String temperature;
+
+        List<Server> servers;
+        double[] latencies;
+        LoadBalancer shared;      // only for thread-safe algorithms
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            latencies = LoadBalancerBenchmark.createLatencies(serverCount);
+            servers = LoadBalancerBenchmark.createServers(latencies);
+            if (LoadBalancerBenchmark.isThreadSafe(algorithm)) {
+                shared = createBalancer();
+            }
+        }
+
+        LoadBalancer createBalancer() {
+            return LoadBalancerBenchmark.createBalancer(algorithm, serverCount, temperature, latencies);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+        LoadBalancer balancer;
+        List<Server> servers;
+        double[] latencies;
+        int nextServer;           // updateOnly's target, wraps at latencies.length
+        int jitter;               // 0..7 ms added to each reported latency
+
+        @Setup(Level.Trial)
+        public void setUp(Cluster cluster) {
+            balancer = LoadBalancerBenchmark.isThreadSafe(cluster.algorithm) ? cluster.shared : cluster.createBalancer();
+            servers = cluster.servers;
+            latencies = cluster.latencies;
+        }
+
+        int nextUpdateServer() {
+            int serverIndex = nextServer;
+            if (++nextServer == latencies.length) nextServer = 0;
+            return serverIndex;
+        }
+
+        double nextLatency(int serverIndex) {
+            jitter = (jitter + 1) & 7;
+            return latencies[serverIndex] + jitter;
+        }
+    }
+
+    @Benchmark
+    public int selectOnly(Worker worker) {
+        return worker.balancer.selectServer(worker.servers);
+    }
+
+    @Benchmark
+    public void updateOnly(Worker worker) {
+        int serverIndex = worker.nextUpdateServer();
+        worker.balancer.updateReward(serverIndex, worker.nextLatency(serverIndex));
+    }
+
+    @Benchmark
+    public int selectAndUpdate(Worker worker) {
+        int selected = worker.balancer.selectServer(worker.servers);
+        worker.balancer.updateReward(selected, worker.nextLatency(selected));
+        return selected;
+    }
+}
@@ -5,7 +5,6 @@ import com.loadbalancer.metrics.MetricsCollector;
 import com.loadbalancer.simulation.Simulation;
 import com.loadbalancer.ui.ConsoleVisualizer;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -85,16 +84,19 @@ public class Main {
                 EVENT_INTERVAL
         );
 
-        // ─── Run All Algorithms ────────────────────────────────────────────────
-        List<MetricsCollector> allResults = new ArrayList<>();
+        // ─── Run All Algorithms (concurrently, each on its own cluster) ─────────
+        List<LoadBalancer> algorithms = List.of(roundRobin, random, softmax);
+        System.out.printf("%n>>> Running %d algorithms in parallel (%d requests, %d servers each)%n",
+                algorithms.size(), TOTAL_REQUESTS, simulation.getServerCount());
+        long startTime = System.currentTimeMillis();
 
-        MetricsCollector rrMetrics     = simulation.run(roundRobin);
-        MetricsCollector randomMetrics = simulation.run(random);
-        MetricsCollector smMetrics     = simulation.run(softmax);
+        List<MetricsCollector> allResults = simulation.runAll(algorithms);
 
-        allResults.add(rrMetrics);
-        allResults.add(randomMetrics);
-        allResults.add(smMetrics);
+        MetricsCollector rrMetrics     = allResults.get(0);
+        MetricsCollector randomMetrics = allResults.get(1);
+        MetricsCollector smMetrics     = allResults.get(2);
+
+        System.out.printf("    All simulations complete in %d ms%n", System.currentTimeMillis() - startTime);
 
         // ─── Print Individual Reports ──────────────────────────────────────────
         System.out.println("\n\n" + "═".repeat(70));
@@ -0,0 +1,92 @@
+package com.loadbalancer.algorithm;
+
+import java.util.Random;
+
+/**
+ * Vose's alias table for O(1) sampling from a fixed discrete distribution.
+ *
+ * Build (O(K)): scale every weight to p_i = K * w_i / Σw, then repeatedly pair an
+ * under-full column (p < 1) with an over-full one, topping it up with an alias.
+ * Draw (O(1)): pick a column uniformly and keep it with probability prob[i],
+ * otherwise take alias[i]. One uniform double supplies both choices.
+ *
+ * All work arrays are reused across rebuilds, so steady state allocates nothing.
+ */
+final class AliasTable {
+
+    private double[] prob  = new double[0];
+    private int[]    alias = new int[0];
+    private int[]    small = new int[0];    // worklist: columns with p < 1
+    private int[]    large = new int[0];    // worklist: columns with p ≥ 1
+    private int      size;
+
+    /**
+     * Builds the table for the Softmax weights exp((Q_i - max Q) / τ).
+     */
+    void buildSoftmax(double[] qValues, int n, double temperature) {
+        ensureCapacity(n);
+        size = n;
+
+        double maxQ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (qValues[i] > maxQ) maxQ = qValues[i];
+        }
+        double invTemperature = 1.0 / temperature;
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            prob[i] = Math.exp((qValues[i] - maxQ) * invTemperature);
+            total += prob[i];
+        }
+
+        // Scale so that the average column height is exactly 1
+        double scale = n / total;
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            prob[i] *= scale;
+            alias[i] = i;
+            if (prob[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            alias[less] = more;
+            prob[more] = (prob[more] + prob[less]) - 1.0;
+            if (prob[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Leftovers are full columns up to floating point rounding
+        while (largeCount > 0) prob[large[--largeCount]] = 1.0;
+        while (smallCount > 0) prob[small[--smallCount]] = 1.0;
+    }
+
+    /**
+     * Draws one index: the integer part of u·K picks the column, the fraction decides.
+     */
+    int sample(Random random) {
+        double scaled = random.nextDouble() * size;
+        int column = (int) scaled;
+        if (column >= size) column = size - 1;
+        return (scaled - column) < prob[column] ? column : alias[column];
+    }
+
+    int size() { return size; }
+
+    private void ensureCapacity(int n) {
+        if (prob.length < n) {
+            prob = new double[n];
+            alias = new int[n];
+            small = new int[n];
+            large = new int[n];
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, batched reward ingestion for a learning load balancer.
+ *
+ * Wraps a learner (typically {@link ConcurrentSoftmaxLoadBalancer}) so that
+ * request-completion threads never touch learner state:
+ *
+ *   updateReward  — appends (serverIndex, latency) to a lock-free MPSC ring and returns.
+ *                   If the ring is full the event is dropped and counted.
+ *   consumer      — one thread drains the ring in batches of up to maxBatchSize and
+ *                   applies them to the learner via its own updateReward.
+ *   selectServer  — delegated unchanged.
+ *
+ * Staleness: an idle consumer sleeps at most maxStaleness, so a completion reaches
+ * the Q-values within roughly maxStaleness plus one batch of work.
+ *
+ * The consumer is either the background thread started by {@link #start()}, or —
+ * for single-threaded learners such as {@link SoftmaxLoadBalancer} — whichever thread
+ * calls {@link #drain()}, usually the one that also selects.
+ */
+public class AsyncRewardPipeline implements LoadBalancer, AutoCloseable {
+
+    private final LoadBalancer learner;
+    private final MpscRewardQueue queue;
+    private final int maxBatchSize;
+    private final long maxStalenessNanos;
+    private final MpscRewardQueue.Consumer applier;
+
+    private final AtomicLong appliedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile int maxObservedDepth;
+
+    private volatile boolean running;
+    private Thread consumerThread;
+
+    /**
+     * @param learner            Balancer whose updateReward receives the batched feedback
+     * @param capacity           Ring size (rounded up to a power of two)
+     * @param maxBatchSize       Max events applied per drain pass
+     * @param maxStalenessMillis Max time an idle consumer waits before polling again
+     */
+    public AsyncRewardPipeline(LoadBalancer learner, int capacity, int maxBatchSize, long maxStalenessMillis) {
+        this.learner = learner;
+        this.queue = new MpscRewardQueue(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStalenessMillis);
+        this.applier = learner::updateReward;
+    }
+
+    /**
+     * Starts the background consumer thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        consumerThread = new Thread(this::consumeLoop, "reward-pipeline-" + learner.getAlgorithmName());
+        consumerThread.setDaemon(true);
+        consumerThread.start();
+    }
+
+    private void consumeLoop() {
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, maxStalenessNanos);
+            }
+        }
+        // Apply whatever was published before close()
+        while (drain() > 0) {
+            // keep draining batch by batch
+        }
+    }
+
+    /**
+     * Applies one batch of pending feedback to the learner on the calling thread.
+     * Must not be called concurrently with the background consumer or another drain().
+     *
+     * @return number of events applied
+     */
+    public int drain() {
+        int depth = queue.size();
+        if (depth > maxObservedDepth) maxObservedDepth = depth;
+
+        int applied = queue.drain(applier, maxBatchSize);
+        if (applied > 0) appliedCount.addAndGet(applied);
+        return applied;
+    }
+
+    /**
+     * Stops the background consumer after it has drained the events already published.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(consumerThread);
+        try {
+            consumerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        return learner.selectServer(servers);
+    }
+
+    @Override
+    public void selectServers(List<Server> servers, int[] out, int count) {
+        learner.selectServers(servers, out, count);
+    }
+
+    // Lifecycle hooks bypass the queue: outstanding-request counts must be current at selection time
+
+    @Override
+    public void onRequestStarted(int serverIndex) {
+        learner.onRequestStarted(serverIndex);
+    }
+
+    @Override
+    public void onRequestFinished(int serverIndex) {
+        learner.onRequestFinished(serverIndex);
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        if (!queue.offer(serverIndex, latency)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    // --- Pipeline metrics ---
+
+    /** Events waiting to be applied right now. */
+    public int getQueueDepth() { return queue.size(); }
+
+    /** Largest queue depth seen at the start of a drain pass. */
+    public int getMaxObservedDepth() { return maxObservedDepth; }
+
+    public long getAppliedCount() { return appliedCount.get(); }
+    public long getDroppedCount() { return droppedCount.get(); }
+    public int getCapacity() { return queue.capacity(); }
+    public LoadBalancer getLearner() { return learner; }
+
+    @Override
+    public String getAlgorithmName() { return learner.getAlgorithmName(); }
+
+    /**
+     * Discards pending feedback and resets the learner.
+     * Call only while producers are idle and the background consumer is stopped.
+     */
+    @Override
+    public void reset() {
+        queue.drain((serverIndex, latency) -> { }, Integer.MAX_VALUE);
+        appliedCount.set(0);
+        droppedCount.set(0);
+        maxObservedDepth = 0;
+        learner.reset();
+    }
+}
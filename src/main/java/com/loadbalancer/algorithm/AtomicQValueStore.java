@@ -0,0 +1,123 @@
+package com.loadbalancer.algorithm;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Lock-free store of per-server EMA Q-values.
+ *
+ * Each Q_i is kept as raw double bits in an AtomicLongArray, spaced PADDING longs
+ * (64 bytes) apart so that hot servers never share a cache line. The EMA step
+ *
+ *   Q_i ← Q_i + α · (reward - Q_i)
+ *
+ * is a CAS loop on those bits. If a server is so hot that a CAS fails
+ * contentionThreshold times in a row, the update stops retrying and adds its
+ * delta to a striped DoubleAdder for that server instead (created lazily, only
+ * for servers that actually see contention). The effective value is
+ *
+ *   Q_i = base_i + pending_i
+ *
+ * Deltas parked in pending_i are computed from a slightly stale Q_i, which is the
+ * only approximation; no update is ever dropped.
+ */
+final class AtomicQValueStore {
+
+    static final int DEFAULT_CONTENTION_THRESHOLD = 4;
+
+    private static final int PADDING = 8;           // 8 longs = 64 bytes between entries
+
+    private final int size;
+    private final int contentionThreshold;
+    private final AtomicLongArray baseBits;
+    private final AtomicReferenceArray<DoubleAdder> pending;
+
+    AtomicQValueStore(int size) {
+        this(size, DEFAULT_CONTENTION_THRESHOLD);
+    }
+
+    AtomicQValueStore(int size, int contentionThreshold) {
+        this.size = size;
+        this.contentionThreshold = contentionThreshold;
+        // +1 leading slot keeps entry 0 off the array header's cache line
+        this.baseBits = new AtomicLongArray((size + 1) * PADDING);
+        this.pending = new AtomicReferenceArray<>(size);
+    }
+
+    private static int slot(int index) {
+        return (index + 1) * PADDING;
+    }
+
+    /**
+     * Reads Q_i. Cheap path (one opaque load) unless the server ever hit the fallback.
+     */
+    double get(int index) {
+        double base = Double.longBitsToDouble(baseBits.getOpaque(slot(index)));
+        DoubleAdder cell = pending.getPlain(index);
+        return cell == null ? base : base + cell.sum();
+    }
+
+    /**
+     * Applies one EMA step toward {@code reward} with learning rate {@code alpha}.
+     */
+    void update(int index, double reward, double alpha) {
+        update(index, reward, alpha, contentionThreshold);
+    }
+
+    /**
+     * As {@link #update(int, double, double)}, falling back after {@code threshold} failed
+     * CAS attempts instead of the store's own threshold (0 always takes the fallback).
+     */
+    void update(int index, double reward, double alpha, int threshold) {
+        int slot = slot(index);
+        for (int attempt = 0; ; attempt++) {
+            long bits = baseBits.get(slot);
+            double base = Double.longBitsToDouble(bits);
+            DoubleAdder cell = pending.get(index);
+            double q = cell == null ? base : base + cell.sum();
+            double delta = alpha * (reward - q);
+
+            if (attempt >= threshold) {
+                pendingCell(index).add(delta);
+                return;
+            }
+            if (baseBits.compareAndSet(slot, bits, Double.doubleToRawLongBits(base + delta))) {
+                return;
+            }
+        }
+    }
+
+    private DoubleAdder pendingCell(int index) {
+        DoubleAdder cell = pending.get(index);
+        if (cell == null) {
+            DoubleAdder created = new DoubleAdder();
+            cell = pending.compareAndExchange(index, null, created);
+            if (cell == null) cell = created;
+        }
+        return cell;
+    }
+
+    /**
+     * Number of servers that have fallen back to striped accumulation at least once.
+     */
+    int contendedCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (pending.get(i) != null) count++;
+        }
+        return count;
+    }
+
+    int size() { return size; }
+
+    /**
+     * Zeroes every Q-value. Not meant to race with updates.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            baseBits.set(slot(i), 0L);
+            pending.set(i, null);
+        }
+    }
+}
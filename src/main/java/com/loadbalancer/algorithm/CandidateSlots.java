@@ -0,0 +1,143 @@
+package com.loadbalancer.algorithm;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Shared core of the d-choice balancers ({@link PowerOfTwoChoicesLoadBalancer},
+ * {@link LeastOutstandingLoadBalancer}, {@link PeakEwmaLoadBalancer}): a seeded sampler of
+ * candidate servers and a padded AtomicLongArray of per-server fields.
+ *
+ * SAMPLING: the first candidate is uniform over the n servers and every further one is
+ * drawn from the other n-1, so d = 2 always compares two distinct servers; for d > 2 the
+ * later candidates may repeat among themselves. Once d ≥ n the balancers scan every server
+ * instead. Each selecting thread draws from its own SplittableRandom, split off a root
+ * stream seeded with {@code seed} the first time that thread samples, so concurrent
+ * selections never contend on a shared seed. A single-threaded run is fully reproducible,
+ * and reset() rewinds it.
+ *
+ * LAYOUT: each server owns one 64-byte slot of PADDING longs, holding up to PADDING fields,
+ * so concurrent updates to different servers never contend on a cache line. A leading
+ * empty slot keeps server 0 off the array header's line.
+ */
+final class CandidateSlots {
+
+    static final int PADDING = 8;                   // 8 longs = 64 bytes per server
+
+    private final int    serverCount;
+    private final int    choices;
+    private final long   seed;
+
+    private SplittableRandom root;                  // guarded by this; splits off thread streams
+    private volatile int     generation;            // bumped by reset() to retire old streams
+    private final ThreadLocal<Stream> streams = new ThreadLocal<>();
+
+    private final AtomicLongArray slots;
+
+    private static final class Stream {
+        final int              generation;
+        final SplittableRandom random;
+
+        Stream(int generation, SplittableRandom random) {
+            this.generation = generation;
+            this.random = random;
+        }
+    }
+
+    /**
+     * @param fields  Longs used per server (1 … PADDING)
+     * @param choices Number of candidates compared per request (d ≥ 1)
+     * @param seed    Seed of the root candidate stream; reset() rewinds to it
+     */
+    CandidateSlots(int serverCount, int fields, int choices, long seed) {
+        if (fields < 1 || fields > PADDING) {
+            throw new IllegalArgumentException("fields must be in [1, " + PADDING + "], got: " + fields);
+        }
+        this.serverCount = serverCount;
+        this.choices = choices;
+        this.seed = seed;
+        this.root = new SplittableRandom(seed);
+        this.slots = new AtomicLongArray((serverCount + 1) * PADDING);
+    }
+
+    private static int slot(int server, int field) {
+        return (server + 1) * PADDING + field;
+    }
+
+    // --- Candidate sampling ---
+
+    private SplittableRandom random() {
+        Stream stream = streams.get();
+        if (stream == null || stream.generation != generation) {
+            stream = newStream();
+            streams.set(stream);
+        }
+        return stream.random;
+    }
+
+    private synchronized Stream newStream() {
+        return new Stream(generation, root.split());
+    }
+
+    int choices() { return choices; }
+
+    /** True if d covers a pool of n servers, so every server should be compared. */
+    boolean scansAll(int n) { return choices >= n; }
+
+    /** Uniform over [0, n): the first candidate, or the start offset of a full scan. */
+    int first(int n) { return random().nextInt(n); }
+
+    /** Candidate c ∈ [0, d) of a request whose first candidate is {@code first}. */
+    int candidate(int n, int first, int c) {
+        if (c == 0) return first;
+        int candidate = random().nextInt(n - 1);
+        return candidate >= first ? candidate + 1 : candidate;
+    }
+
+    // --- Padded per-server fields ---
+
+    long get(int server, int field) { return slots.get(slot(server, field)); }
+
+    /** Read without ordering guarantees, for selection hot paths that tolerate a stale value. */
+    long getOpaque(int server, int field) { return slots.getOpaque(slot(server, field)); }
+
+    boolean compareAndSet(int server, int field, long expected, long value) {
+        return slots.compareAndSet(slot(server, field), expected, value);
+    }
+
+    long accumulateAndGet(int server, int field, long value, LongBinaryOperator function) {
+        return slots.accumulateAndGet(slot(server, field), value, function);
+    }
+
+    void increment(int server, int field) { slots.getAndIncrement(slot(server, field)); }
+
+    /**
+     * Decrements a counter but never below zero, so a decrement without a matching
+     * increment (a stray finish, warm-up feedback) is harmless.
+     */
+    void decrement(int server, int field) {
+        int index = slot(server, field);
+        long count;
+        do {
+            count = slots.get(index);
+            if (count == 0) return;
+        } while (!slots.compareAndSet(index, count, count - 1));
+    }
+
+    /**
+     * Zeroes every field of every server and rewinds the sampler to its seed: each thread's
+     * next draw splits a fresh stream off the rewound root. Not meant to race with selections.
+     */
+    void reset() {
+        for (int i = 0; i < serverCount; i++) {
+            for (int f = 0; f < PADDING; f++) {
+                slots.set(slot(i, f), 0L);
+            }
+        }
+        synchronized (this) {
+            root = new SplittableRandom(seed);
+            generation++;
+        }
+    }
+}
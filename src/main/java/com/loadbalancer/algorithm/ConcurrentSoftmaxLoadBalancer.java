@@ -0,0 +1,214 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent Softmax Load Balancer
+ *
+ * Same policy as {@link SoftmaxLoadBalancer} (Softmax over EMA Q-values, linear τ-decay),
+ * but safe to call from a request-handling thread pool without a global lock:
+ *
+ *   selectServer  — lock-free. Reads Q-values with opaque loads into a per-thread
+ *                   scratch buffer, draws with ThreadLocalRandom, and counts the
+ *                   selection and the step in striped {@link LongAdder}s, which spread
+ *                   contending threads over separate cells.
+ *   updateReward  — lock-free. Per-server CAS loop on the raw double bits of Q_i in a
+ *                   cache-line padded {@link AtomicQValueStore}, falling back to a striped
+ *                   accumulator for servers under heavy contention. No update is lost.
+ *
+ * Nothing is registered per thread: a pool that keeps replacing its workers leaves no state
+ * behind, and every step of a short-lived thread counts towards the cooling schedule.
+ */
+public class ConcurrentSoftmaxLoadBalancer implements LoadBalancer {
+
+    private final double initialTemperature;
+    private final double minTemperature;
+    private final double temperatureDecayRate;
+    private final double learningRate;
+    private final int    serverCount;
+
+    private final AtomicQValueStore qValues;
+    private final LongAdder[]       selectionCounts;
+    private final LongAdder         steps;          // global step count for τ-decay
+
+    // Per-thread CDF buffer; dies with its thread
+    private final ThreadLocal<double[]> scratch;
+
+    /**
+     * @param serverCount         Number of servers in the cluster
+     * @param initialTemperature  Initial τ — controls explore/exploit tradeoff
+     * @param minTemperature      Minimum τ — prevents full greedy behavior
+     * @param temperatureDecayRate Rate at which τ decreases per step (0 = no decay)
+     * @param learningRate        α for EMA updates (0.0 < α ≤ 1.0)
+     */
+    public ConcurrentSoftmaxLoadBalancer(int serverCount,
+                                          double initialTemperature,
+                                          double minTemperature,
+                                          double temperatureDecayRate,
+                                          double learningRate) {
+        this.serverCount = serverCount;
+        this.initialTemperature = initialTemperature;
+        this.minTemperature = minTemperature;
+        this.temperatureDecayRate = temperatureDecayRate;
+        this.learningRate = learningRate;
+        this.qValues = new AtomicQValueStore(serverCount);
+        this.selectionCounts = new LongAdder[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            selectionCounts[i] = new LongAdder();
+        }
+        this.steps = new LongAdder();
+        this.scratch = ThreadLocal.withInitial(() -> new double[serverCount]);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        double[] cumulative = cumulativeBuffer(n);
+        double total = buildDistribution(cumulative, n);
+
+        int selectedIndex = sampleFromDistribution(cumulative, n, total);
+        recordStep(selectedIndex);
+        return selectedIndex;
+    }
+
+    /**
+     * Snapshots the Q-values once and draws the whole batch from that snapshot.
+     */
+    @Override
+    public void selectServers(List<Server> servers, int[] out, int count) {
+        int n = servers.size();
+        double[] cumulative = cumulativeBuffer(n);
+        double total = buildDistribution(cumulative, n);
+
+        for (int i = 0; i < count; i++) {
+            out[i] = sampleFromDistribution(cumulative, n, total);
+            recordStep(out[i]);
+        }
+    }
+
+    private double[] cumulativeBuffer(int n) {
+        double[] cumulative = scratch.get();
+        if (cumulative.length < n) {
+            cumulative = new double[n];
+            scratch.set(cumulative);
+        }
+        return cumulative;
+    }
+
+    /**
+     * Fills the thread's scratch buffer with the unnormalized CDF and returns its total.
+     */
+    private double buildDistribution(double[] cumulative, int n) {
+        // Snapshot Q-values once: the max pass and the exp pass must see the same values
+        double maxQ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double q = qValues.get(i);
+            cumulative[i] = q;
+            if (q > maxQ) maxQ = q;
+        }
+
+        // Fused scale + exp + running sum (log-sum-exp shift by max Q)
+        double invTemperature = 1.0 / getCurrentTemperature();
+        double sumExp = 0.0;
+        for (int i = 0; i < n; i++) {
+            sumExp += Math.exp((cumulative[i] - maxQ) * invTemperature);
+            cumulative[i] = sumExp;
+        }
+        return sumExp;
+    }
+
+    private void recordStep(int selectedIndex) {
+        selectionCounts[selectedIndex].increment();
+        steps.increment();
+    }
+
+    /**
+     * Inverse CDF over unnormalized cumulative weights (binary search).
+     */
+    private static int sampleFromDistribution(double[] cumulative, int n, double total) {
+        double sample = ThreadLocalRandom.current().nextDouble() * total;
+        int lo = 0;
+        int hi = n - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sample <= cumulative[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        qValues.update(serverIndex, SoftmaxLoadBalancer.toReward(latency), learningRate);
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    public double[] getQValues() {
+        double[] q = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            q[i] = qValues.get(i);
+        }
+        return q;
+    }
+
+    public double[] getProbabilities(int serverCount) {
+        double[] q = getQValues();
+        double maxQ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < serverCount; i++) if (q[i] > maxQ) maxQ = q[i];
+
+        double temperature = getCurrentTemperature();
+        double[] probs = new double[serverCount];
+        double sumExp = 0.0;
+        for (int i = 0; i < serverCount; i++) {
+            probs[i] = Math.exp((q[i] - maxQ) / temperature);
+            sumExp += probs[i];
+        }
+        for (int i = 0; i < serverCount; i++) {
+            probs[i] /= sumExp;
+        }
+        return probs;
+    }
+
+    /**
+     * Sums the striped counters. Counts from threads still selecting may be slightly stale.
+     */
+    public int[] getSelectionCounts() {
+        int[] counts = new int[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            counts[i] = (int) selectionCounts[i].sum();
+        }
+        return counts;
+    }
+
+    public double getCurrentTemperature() {
+        return Math.max(minTemperature, initialTemperature - temperatureDecayRate * steps.sum());
+    }
+
+    /**
+     * Number of servers whose EMA updates have hit the contention fallback.
+     */
+    public int getContendedServerCount() { return qValues.contendedCount(); }
+
+    @Override
+    public String getAlgorithmName() { return "Softmax (concurrent)"; }
+
+    /**
+     * Resets Q-values and the cooling schedule. Not meant to race with selections.
+     */
+    @Override
+    public void reset() {
+        for (LongAdder count : selectionCounts) {
+            count.reset();
+        }
+        steps.reset();
+        qValues.clear();
+    }
+}
@@ -0,0 +1,112 @@
+package com.loadbalancer.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Exponentially discounted per-server counts, sums and sums of squares, updated in O(1).
+ *
+ * After t observations, an observation made at step s carries weight γ^(t-s). Rather than
+ * multiplying every server's statistics by γ at every step, each observation is stored
+ * with weight γ^-s and a single global scale γ^-t divides them out on read:
+ *
+ *   N_i(γ) = weight_i / scale        X̄_i(γ) = sum_i / weight_i
+ *
+ * The mean (and the variance, from the sum of squares) needs no scale at all. When the
+ * scale passes 1e100 every entry is divided by it and the scale returns to 1, an O(n) pass
+ * roughly every 230 / (1-γ) steps. Servers whose weight underflows in that pass are
+ * cleared, i.e. count as never observed.
+ */
+final class DiscountedStatistics {
+
+    private static final double RESCALE_THRESHOLD = 1e100;
+    private static final double FORGOTTEN_WEIGHT  = 1e-300;
+
+    private final double   discount;
+    private final double[] weights;
+    private final double[] sums;
+    private final double[] sumSquares;
+    private double scale = 1.0;
+    private double totalWeight;
+
+    /**
+     * @param discount γ ∈ (0, 1]; 1 keeps every observation at full weight
+     */
+    DiscountedStatistics(int size, double discount) {
+        if (!(discount > 0.0 && discount <= 1.0)) {
+            throw new IllegalArgumentException("discount must be in (0, 1], got: " + discount);
+        }
+        this.discount = discount;
+        this.weights = new double[size];
+        this.sums = new double[size];
+        this.sumSquares = new double[size];
+    }
+
+    /**
+     * Advances the clock one step and adds {@code value} to server {@code index} at weight 1.
+     *
+     * @return true if every server's raw weight and sum were rescaled by this call
+     */
+    boolean add(int index, double value) {
+        scale /= discount;
+        boolean rescaled = scale > RESCALE_THRESHOLD;
+        if (rescaled) {
+            rescale();
+        }
+        weights[index] += scale;
+        sums[index] += value * scale;
+        sumSquares[index] += value * value * scale;
+        totalWeight += scale;
+        return rescaled;
+    }
+
+    private void rescale() {
+        double inverse = 1.0 / scale;
+        for (int i = 0; i < weights.length; i++) {
+            double w = weights[i] * inverse;
+            if (w < FORGOTTEN_WEIGHT) {
+                weights[i] = 0.0;
+                sums[i] = 0.0;
+                sumSquares[i] = 0.0;
+            } else {
+                weights[i] = w;
+                sums[i] *= inverse;
+                sumSquares[i] *= inverse;
+            }
+        }
+        totalWeight *= inverse;
+        scale = 1.0;
+    }
+
+    /** Discounted number of observations of server i, N_i(γ). */
+    double count(int index) { return weights[index] / scale; }
+
+    /** Discounted mean of server i; 0 if it was never observed. */
+    double mean(int index) { return weights[index] == 0.0 ? 0.0 : sums[index] / weights[index]; }
+
+    /** Discounted population variance of server i; 0 if it was never observed. */
+    double variance(int index) {
+        double w = weights[index];
+        if (w == 0.0) return 0.0;
+        double mean = sums[index] / w;
+        return Math.max(0.0, sumSquares[index] / w - mean * mean);
+    }
+
+    /** Σ_i N_i(γ). */
+    double totalCount() { return totalWeight / scale; }
+
+    /** The current γ^-t; raw weights divided by it are the discounted counts. */
+    double scale() { return scale; }
+
+    /** weight_i, i.e. N_i(γ) · scale. Unchanged between add() calls that do not rescale. */
+    double rawWeight(int index) { return weights[index]; }
+
+    int size() { return weights.length; }
+
+    void clear() {
+        Arrays.fill(weights, 0.0);
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(sumSquares, 0.0);
+        scale = 1.0;
+        totalWeight = 0.0;
+    }
+}
@@ -0,0 +1,143 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Discounted UCB Load Balancer (Garivier & Moulines, 2011)
+ *
+ * Picks the server with the highest upper confidence bound on its reward
+ * (reward = {@link SoftmaxLoadBalancer#toReward} of the latency):
+ *
+ *   index_i = X̄_i(γ) + c · sqrt(ln n(γ) / N_i(γ))
+ *
+ * where N_i(γ) and X̄_i(γ) are the count and mean of server i's observations, each weighted
+ * by γ^(age in steps), and n(γ) = Σ_i N_i(γ). Old observations fade, so a server that drifts
+ * or degrades loses its advantage, and one that has not been tried for a while regains
+ * exploration bonus. Servers never observed (or fully forgotten) have an infinite index
+ * and are tried first. The effective memory is about 1 / (1-γ) requests.
+ *
+ * Statistics live in a {@link DiscountedStatistics}, so updateReward is O(1) despite
+ * discounting every server. Since N_i(γ) = weight_i / scale, the bonus factors as
+ *
+ *   c · sqrt(ln n(γ) / N_i(γ)) = [c · sqrt(ln n(γ) · scale)] · [1 / sqrt(weight_i)]
+ *
+ * The first factor is one scalar per selection; the second, like X̄_i, changes only for
+ * the server just updated, so both are cached in dense arrays. selectServer is then a
+ * single multiply-add and compare per server, with no division or sqrt (well under a
+ * microsecond for 1 000 servers). Unobserved servers are cached as mean +∞ and bonus
+ * factor 0, so they need no special case either.
+ *
+ * Not thread-safe: like {@link SoftmaxLoadBalancer}, use one instance per thread.
+ */
+public class DiscountedUcbLoadBalancer implements LoadBalancer {
+
+    public static final double DEFAULT_DISCOUNT = 0.999;
+    public static final double DEFAULT_EXPLORATION_WEIGHT = 0.3;
+
+    private final int    serverCount;
+    private final double discount;
+    private final double explorationWeight;
+
+    private final DiscountedStatistics statistics;
+    private final double[] means;              // X̄_i(γ), +∞ if unobserved
+    private final double[] bonusFactors;       // 1 / sqrt(weight_i), 0 if unobserved
+
+    public DiscountedUcbLoadBalancer(int serverCount) {
+        this(serverCount, DEFAULT_DISCOUNT, DEFAULT_EXPLORATION_WEIGHT);
+    }
+
+    /**
+     * @param serverCount       Number of servers in the cluster
+     * @param discount          γ ∈ (0, 1]: weight kept by an observation per later observation
+     * @param explorationWeight c: scale of the confidence bonus, in reward units
+     */
+    public DiscountedUcbLoadBalancer(int serverCount, double discount, double explorationWeight) {
+        if (explorationWeight < 0) {
+            throw new IllegalArgumentException("explorationWeight must be non-negative, got: " + explorationWeight);
+        }
+        this.serverCount = serverCount;
+        this.discount = discount;
+        this.explorationWeight = explorationWeight;
+        this.statistics = new DiscountedStatistics(serverCount, discount);
+        this.means = new double[serverCount];
+        this.bonusFactors = new double[serverCount];
+        clearCache();
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        double bonus = explorationWeight
+                * Math.sqrt(Math.log(Math.max(statistics.totalCount(), 1.0)) * statistics.scale());
+        return argmaxIndex(means, bonusFactors, bonus, n);
+    }
+
+    /**
+     * argmax_i (means[i] + bonus · bonusFactors[i]); the lowest index wins ties.
+     */
+    static int argmaxIndex(double[] means, double[] bonusFactors, double bonus, int n) {
+        int best = 0;
+        double bestIndex = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double index = means[i] + bonus * bonusFactors[i];
+            if (index > bestIndex) {
+                best = i;
+                bestIndex = index;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        if (statistics.add(serverIndex, SoftmaxLoadBalancer.toReward(latency))) {
+            for (int i = 0; i < serverCount; i++) refresh(i);
+        } else {
+            refresh(serverIndex);
+        }
+    }
+
+    private void refresh(int index) {
+        double weight = statistics.rawWeight(index);
+        if (weight == 0.0) {
+            means[index] = Double.POSITIVE_INFINITY;
+            bonusFactors[index] = 0.0;
+        } else {
+            means[index] = statistics.mean(index);
+            bonusFactors[index] = 1.0 / Math.sqrt(weight);
+        }
+    }
+
+    private void clearCache() {
+        Arrays.fill(means, Double.POSITIVE_INFINITY);
+        Arrays.fill(bonusFactors, 0.0);
+    }
+
+    @Override
+    public String getAlgorithmName() { return "Discounted UCB"; }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+        clearCache();
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    /** Discounted mean reward X̄_i(γ) per server. */
+    public double[] getMeanRewards() {
+        double[] means = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) means[i] = statistics.mean(i);
+        return means;
+    }
+
+    /** Discounted observation count N_i(γ) of server i. */
+    public double getDiscountedCount(int serverIndex) { return statistics.count(serverIndex); }
+
+    public double getDiscount() { return discount; }
+
+    public double getExplorationWeight() { return explorationWeight; }
+}
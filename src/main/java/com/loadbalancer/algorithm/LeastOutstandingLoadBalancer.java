@@ -0,0 +1,109 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+
+/**
+ * Least-Outstanding-Requests Load Balancer
+ *
+ * Sends each request to the server with the fewest requests in flight, counted through
+ * the onRequestStarted / onRequestFinished hooks. Latency feedback is ignored: a slow
+ * server is avoided only because its requests take longer to finish.
+ *
+ * To stay O(1) on large pools, only {@code sampleSize} random servers are compared per
+ * request (2 by default, like Envoy's LEAST_REQUEST). If sampleSize covers the pool, every
+ * server is scanned, starting at a random offset so that ties rotate instead of always
+ * falling on server 0.
+ *
+ * Counts live in padded {@link CandidateSlots}, one 64-byte slot per server, so concurrent
+ * requests to different servers never contend on a cache line.
+ *
+ * Pros:  Reacts to load instantly, no tuning, lock-free
+ * Cons:  Needs the lifecycle hooks; blind to latency while queues are short
+ */
+public class LeastOutstandingLoadBalancer implements LoadBalancer {
+
+    private static final int OUTSTANDING = 0;
+
+    private final CandidateSlots slots;
+
+    /**
+     * @param serverCount Number of servers in the cluster
+     */
+    public LeastOutstandingLoadBalancer(int serverCount) {
+        this(serverCount, 2, 97531L);
+    }
+
+    /**
+     * @param sampleSize Number of servers compared per request (≥ 1)
+     * @param seed       Seed of the sampling streams; reset() rewinds to it
+     */
+    public LeastOutstandingLoadBalancer(int serverCount, int sampleSize, long seed) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("sampleSize must be at least 1, got: " + sampleSize);
+        }
+        this.slots = new CandidateSlots(serverCount, 1, sampleSize, seed);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        int best = -1;
+        long bestCount = Long.MAX_VALUE;
+
+        if (slots.scansAll(n)) {
+            int index = slots.first(n);
+            for (int i = 0; i < n; i++) {
+                long count = slots.getOpaque(index, OUTSTANDING);
+                if (count < bestCount) {
+                    best = index;
+                    bestCount = count;
+                }
+                if (++index == n) index = 0;
+            }
+        } else {
+            int first = slots.first(n);
+            for (int c = 0; c < slots.choices(); c++) {
+                int candidate = slots.candidate(n, first, c);
+                long count = slots.getOpaque(candidate, OUTSTANDING);
+                if (count < bestCount) {
+                    best = candidate;
+                    bestCount = count;
+                }
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onRequestStarted(int serverIndex) {
+        slots.increment(serverIndex, OUTSTANDING);
+    }
+
+    @Override
+    public void onRequestFinished(int serverIndex) {
+        // Never below zero, so a finish without a matching start is harmless
+        slots.decrement(serverIndex, OUTSTANDING);
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        // Only in-flight counts matter — intentionally blank
+    }
+
+    @Override
+    public String getAlgorithmName() { return "Least Outstanding"; }
+
+    @Override
+    public void reset() {
+        slots.reset();
+    }
+
+    /** Requests started on server i and not yet finished. */
+    public long getOutstanding(int serverIndex) {
+        return slots.get(serverIndex, OUTSTANDING);
+    }
+
+    public int getSampleSize() { return slots.choices(); }
+}
@@ -5,8 +5,18 @@ import com.loadbalancer.model.Server;
 import java.util.List;
 
 /**
- * Common interface for all load balancing algorithms.
- * Implementations include: SoftmaxLoadBalancer, RoundRobinLoadBalancer, RandomLoadBalancer.
+ * Common interface for all load balancing algorithms. Implementations include:
+ *   - static:      RoundRobinLoadBalancer, RandomLoadBalancer
+ *   - Softmax:     SoftmaxLoadBalancer, SumTreeSoftmaxLoadBalancer, ConcurrentSoftmaxLoadBalancer
+ *   - bandits:     DiscountedUcbLoadBalancer, SlidingWindowUcbLoadBalancer,
+ *                  ThompsonSamplingLoadBalancer
+ *   - load-aware:  PowerOfTwoChoicesLoadBalancer, PeakEwmaLoadBalancer,
+ *                  LeastOutstandingLoadBalancer
+ *   - wrapper:     AsyncRewardPipeline (batches another balancer's reward updates)
+ *
+ * A request's lifecycle is selectServer → onRequestStarted → … → onRequestFinished →
+ * updateReward. The two hooks default to no-ops; the load-aware algorithms use them to
+ * count outstanding requests per server.
  */
 public interface LoadBalancer {
 
@@ -18,6 +28,21 @@ public interface LoadBalancer {
      */
     int selectServer(List<Server> servers);
 
+    /**
+     * Selects servers for a burst of {@code count} requests in one call.
+     * Implementations may compute their selection state once and reuse it for the
+     * whole batch; the default simply calls {@link #selectServer} {@code count} times.
+     *
+     * @param servers List of available servers
+     * @param out     Receives the selected indices in out[0 .. count-1]
+     * @param count   Number of requests in the batch
+     */
+    default void selectServers(List<Server> servers, int[] out, int count) {
+        for (int i = 0; i < count; i++) {
+            out[i] = selectServer(servers);
+        }
+    }
+
     /**
      * Updates the internal state of the algorithm with observed latency.
      * Only meaningful for learning algorithms (e.g., Softmax with UCB or EMA).
@@ -27,6 +52,22 @@ public interface LoadBalancer {
      */
     void updateReward(int serverIndex, double latency);
 
+    /**
+     * Called once a request has been dispatched to the server returned by selectServer.
+     *
+     * @param serverIndex Index of the server now handling the request
+     */
+    default void onRequestStarted(int serverIndex) {
+    }
+
+    /**
+     * Called when a request's response arrives, just before its updateReward.
+     *
+     * @param serverIndex Index of the server that handled the request
+     */
+    default void onRequestFinished(int serverIndex) {
+    }
+
     /**
      * Returns the name of this algorithm for logging/reporting.
      */
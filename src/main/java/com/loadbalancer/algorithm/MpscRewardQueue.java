@@ -0,0 +1,100 @@
+package com.loadbalancer.algorithm;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer ring of (serverIndex, latency) pairs.
+ *
+ * Payloads live in two primitive arrays — nothing is boxed or allocated per event.
+ * Each slot carries a sequence number (Vyukov's bounded queue):
+ *
+ *   sequence == position          → slot is free for the producer claiming position
+ *   sequence == position + 1      → slot holds a published event for the consumer
+ *   sequence == position + capacity → slot was consumed and is free for the next lap
+ *
+ * Producers claim a position with one CAS on the tail and publish with a release store;
+ * the single consumer never CASes. offer() never blocks: on a full ring it returns false.
+ */
+final class MpscRewardQueue {
+
+    /**
+     * Receives drained events; called on the consumer thread only.
+     */
+    interface Consumer {
+        void accept(int serverIndex, double latency);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final int[] serverIndices;
+    private final double[] latencies;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();   // next position to claim
+    private volatile long head;                          // next position to consume
+
+    MpscRewardQueue(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.serverIndices = new int[capacity];
+        this.latencies = new double[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Appends one event. Safe from any number of threads; returns false if the ring is full.
+     */
+    boolean offer(int serverIndex, double latency) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.getAcquire(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    serverIndices[slot] = serverIndex;
+                    latencies[slot] = latency;
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;   // consumer has not freed this slot yet: full
+            }
+            // sequence > position: another producer claimed it first, retry with a fresh tail
+        }
+    }
+
+    /**
+     * Hands up to {@code maxEvents} published events to {@code consumer}, oldest first.
+     * Must only be called by one thread at a time.
+     *
+     * @return number of events drained
+     */
+    int drain(Consumer consumer, int maxEvents) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxEvents) {
+            int slot = (int) (position & mask);
+            if (sequences.getAcquire(slot) != position + 1) {
+                break;      // next event not published yet
+            }
+            consumer.accept(serverIndices[slot], latencies[slot]);
+            sequences.setRelease(slot, position + capacity);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Claimed-but-not-consumed events (includes ones still being published).
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() { return capacity; }
+}
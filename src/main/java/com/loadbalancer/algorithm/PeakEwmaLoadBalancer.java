@@ -0,0 +1,185 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Peak-EWMA Load Balancer (as in Finagle and Linkerd)
+ *
+ * Each server keeps a latency estimate that decays with wall-clock time rather than
+ * with the number of samples. When a response takes rtt ms, Δt after the previous one:
+ *
+ *   cost_i ← rtt                                  if rtt > cost_i   (peak: jump up at once)
+ *   cost_i ← cost_i · w + rtt · (1 - w)          otherwise,  w = exp(-Δt / τ)
+ *
+ * Between responses the estimate decays towards zero at the same rate, so a server that
+ * spiked once is retried after a few τ. The load of a server is
+ *
+ *   load_i = cost_i · (pending_i + 1)
+ *
+ * where pending_i counts requests between onRequestStarted and onRequestFinished. A server
+ * that has never answered but has requests pending gets a large penalty instead, so
+ * unknown servers are probed one request at a time.
+ *
+ * Like {@link PowerOfTwoChoicesLoadBalancer}, d random candidates are compared per
+ * request (d = 2 by default), so selection is O(d). Cost, timestamp and pending count of
+ * a server share one padded 64-byte slot of {@link CandidateSlots}; updates are CAS loops,
+ * and reads never write. The timestamp is advanced after the cost's CAS, so a racing
+ * update may decay over a slightly longer interval — the only approximation.
+ *
+ * The clock is injectable: {@link System#nanoTime} by default, or a simulation's virtual
+ * clock (see {@code EventDrivenSimulation.virtualClock()}) for reproducible runs.
+ */
+public class PeakEwmaLoadBalancer implements LoadBalancer {
+
+    public static final double DEFAULT_DECAY_TIME_MS = 10_000.0;
+
+    private static final int COST    = 0;           // double bits, ms
+    private static final int STAMP   = 1;           // clock nanos of the last update
+    private static final int PENDING = 2;
+
+    // Load of a server with pending requests but no latency sample yet
+    private static final double PENALTY = 1e12;
+
+    private final double       decayTimeNanos;
+    private final LongSupplier clock;
+
+    private final CandidateSlots state;
+
+    /**
+     * Two choices, τ = 10 s on {@link System#nanoTime}.
+     */
+    public PeakEwmaLoadBalancer(int serverCount) {
+        this(serverCount, DEFAULT_DECAY_TIME_MS, System::nanoTime, 2, 13579L);
+    }
+
+    /**
+     * @param serverCount     Number of servers in the cluster
+     * @param decayTimeMillis τ: time for an old estimate's weight to fall to 1/e
+     * @param nanoClock       Monotonic clock in nanoseconds
+     * @param choices         Number of candidates compared per request (d ≥ 1)
+     * @param seed            Seed of the candidate streams; reset() rewinds to it
+     */
+    public PeakEwmaLoadBalancer(int serverCount, double decayTimeMillis, LongSupplier nanoClock,
+                                int choices, long seed) {
+        if (decayTimeMillis <= 0) {
+            throw new IllegalArgumentException("decayTimeMillis must be positive, got: " + decayTimeMillis);
+        }
+        if (choices < 1) {
+            throw new IllegalArgumentException("choices must be at least 1, got: " + choices);
+        }
+        this.decayTimeNanos = decayTimeMillis * 1_000_000.0;
+        this.clock = nanoClock;
+        this.state = new CandidateSlots(serverCount, 3, choices, seed);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        long now = clock.getAsLong();
+        int best = -1;
+        double bestLoad = Double.POSITIVE_INFINITY;
+
+        if (state.scansAll(n)) {
+            for (int i = 0; i < n; i++) {
+                double load = load(i, now);
+                if (load < bestLoad) {
+                    best = i;
+                    bestLoad = load;
+                }
+            }
+        } else {
+            int first = state.first(n);
+            for (int c = 0; c < state.choices(); c++) {
+                int candidate = state.candidate(n, first, c);
+                double load = load(candidate, now);
+                if (load < bestLoad) {
+                    best = candidate;
+                    bestLoad = load;
+                }
+            }
+        }
+        return best;
+    }
+
+    private double load(int index, long now) {
+        long pending = state.getOpaque(index, PENDING);
+        double cost = decayedCost(index, now);
+        if (cost == 0.0 && pending != 0) {
+            return PENALTY + pending;
+        }
+        return cost * (pending + 1);
+    }
+
+    private double decayedCost(int index, long now) {
+        double cost = Double.longBitsToDouble(state.getOpaque(index, COST));
+        long elapsed = Math.max(0L, now - state.getOpaque(index, STAMP));
+        return cost * Math.exp(-elapsed / decayTimeNanos);
+    }
+
+    @Override
+    public void onRequestStarted(int serverIndex) {
+        state.increment(serverIndex, PENDING);
+    }
+
+    @Override
+    public void onRequestFinished(int serverIndex) {
+        // Never below zero, so a finish without a matching start is harmless
+        state.decrement(serverIndex, PENDING);
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        long now = clock.getAsLong();
+        while (true) {
+            long oldBits = state.get(serverIndex, COST);
+            double cost = Double.longBitsToDouble(oldBits);
+            double updated;
+            if (latency > cost) {
+                updated = latency;
+            } else {
+                long elapsed = Math.max(0L, now - state.get(serverIndex, STAMP));
+                double w = Math.exp(-elapsed / decayTimeNanos);
+                updated = cost * w + latency * (1.0 - w);
+            }
+            if (state.compareAndSet(serverIndex, COST, oldBits, Double.doubleToRawLongBits(updated))) {
+                state.accumulateAndGet(serverIndex, STAMP, now, Math::max);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "Peak EWMA";
+    }
+
+    @Override
+    public void reset() {
+        // Double bits of 0.0 are 0L, so zeroing every field also clears the cost
+        state.reset();
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    /** Latency estimate of server i (ms), decayed to the current clock time. */
+    public double getCost(int serverIndex) {
+        return decayedCost(serverIndex, clock.getAsLong());
+    }
+
+    /** cost · (pending + 1), the value selectServer compares. */
+    public double getLoad(int serverIndex) {
+        return load(serverIndex, clock.getAsLong());
+    }
+
+    /** Requests started on server i and not yet finished. */
+    public long getPending(int serverIndex) {
+        return state.get(serverIndex, PENDING);
+    }
+
+    public double getDecayTimeMillis() { return decayTimeNanos / 1_000_000.0; }
+
+    public int getChoices() { return state.choices(); }
+}
@@ -0,0 +1,144 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+
+/**
+ * Power-of-d-Choices Load Balancer
+ *
+ * Samples d servers uniformly at random (d = 2 by default) and sends the request
+ * to the one with the lowest expected cost
+ *
+ *   cost_i = -Q_i · (inFlight_i + 1)
+ *
+ * where Q_i is the same EMA of toReward(latency) that {@link SoftmaxLoadBalancer} learns
+ * (so -Q_i is the recent latency / 100), and inFlight_i counts requests between
+ * onRequestStarted and onRequestFinished. A server that has never answered (Q_i = 0) but
+ * has requests in flight gets a large penalty instead, as in {@link PeakEwmaLoadBalancer}:
+ * otherwise its cost would stay 0 however deep its queue grew, and a new or silent server
+ * would win every comparison it is sampled into.
+ *
+ * Selection is O(d), independent of pool size: no distribution over all servers is ever
+ * built. Because only d random candidates compete, traffic cannot herd onto the single
+ * best server, and the in-flight factor steers away from servers that are already busy.
+ * Q-values live in a lock-free {@link AtomicQValueStore} and in-flight counts in padded
+ * {@link CandidateSlots}, so selectServer and updateReward are safe to call concurrently.
+ */
+public class PowerOfTwoChoicesLoadBalancer implements LoadBalancer {
+
+    private static final int IN_FLIGHT = 0;
+
+    // Cost of a server with requests in flight but no latency sample yet
+    private static final double PENALTY = 1e12;
+
+    private final int    serverCount;
+    private final double learningRate;
+
+    private final AtomicQValueStore qValues;
+    private final CandidateSlots    slots;
+
+    /**
+     * @param serverCount  Number of servers in the cluster
+     * @param learningRate α for EMA updates (0.0 < α ≤ 1.0)
+     */
+    public PowerOfTwoChoicesLoadBalancer(int serverCount, double learningRate) {
+        this(serverCount, learningRate, 2, 24680L);
+    }
+
+    /**
+     * @param choices Number of candidates compared per request (d ≥ 1)
+     * @param seed    Seed of the candidate streams; reset() rewinds to it
+     */
+    public PowerOfTwoChoicesLoadBalancer(int serverCount, double learningRate, int choices, long seed) {
+        if (choices < 1) {
+            throw new IllegalArgumentException("choices must be at least 1, got: " + choices);
+        }
+        this.serverCount = serverCount;
+        this.learningRate = learningRate;
+        this.qValues = new AtomicQValueStore(serverCount);
+        this.slots = new CandidateSlots(serverCount, 1, choices, seed);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        long bestLoad = Long.MAX_VALUE;
+
+        if (slots.scansAll(n)) {
+            for (int i = 0; i < n; i++) {
+                long load = slots.get(i, IN_FLIGHT);
+                double cost = cost(i, load);
+                if (cost < bestCost || (cost == bestCost && load < bestLoad)) {
+                    best = i;
+                    bestCost = cost;
+                    bestLoad = load;
+                }
+            }
+        } else {
+            int first = slots.first(n);
+            for (int c = 0; c < slots.choices(); c++) {
+                int candidate = slots.candidate(n, first, c);
+                long load = slots.get(candidate, IN_FLIGHT);
+                double cost = cost(candidate, load);
+                if (cost < bestCost || (cost == bestCost && load < bestLoad)) {
+                    best = candidate;
+                    bestCost = cost;
+                    bestLoad = load;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private double cost(int index, long load) {
+        double q = qValues.get(index);
+        if (q == 0.0 && load != 0) {
+            return PENALTY + load;
+        }
+        return -q * (load + 1);
+    }
+
+    @Override
+    public void onRequestStarted(int serverIndex) {
+        slots.increment(serverIndex, IN_FLIGHT);
+    }
+
+    @Override
+    public void onRequestFinished(int serverIndex) {
+        // Never below zero, so a finish without a matching start is harmless
+        slots.decrement(serverIndex, IN_FLIGHT);
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        qValues.update(serverIndex, SoftmaxLoadBalancer.toReward(latency), learningRate);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return slots.choices() == 2 ? "Power-of-Two Choices" : "Power-of-" + slots.choices() + " Choices";
+    }
+
+    @Override
+    public void reset() {
+        qValues.clear();
+        slots.reset();
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    public double[] getQValues() {
+        double[] copy = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) copy[i] = qValues.get(i);
+        return copy;
+    }
+
+    /** Requests started on server i and not yet finished. */
+    public int getInFlight(int serverIndex) { return (int) slots.get(serverIndex, IN_FLIGHT); }
+
+    public int getChoices() { return slots.choices(); }
+}
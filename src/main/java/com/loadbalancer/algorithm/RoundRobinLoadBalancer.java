@@ -16,19 +16,52 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class RoundRobinLoadBalancer implements LoadBalancer {
 
-    private final AtomicInteger counter;
+    private final int start;
+    private final AtomicInteger counter;    // next index, kept in [0, servers.size())
 
     public RoundRobinLoadBalancer() {
-        this.counter = new AtomicInteger(0);
+        this(0);
+    }
+
+    /**
+     * @param start Index of the first server selected (taken modulo the server count)
+     */
+    public RoundRobinLoadBalancer(int start) {
+        this.start = start;
+        this.counter = new AtomicInteger(start);
     }
 
     @Override
     public int selectServer(List<Server> servers) {
-        int selected = counter.getAndIncrement() % servers.size();
-        if (counter.get() >= Integer.MAX_VALUE - 1) {
-            counter.set(0);
+        return advance(servers.size(), 1);
+    }
+
+    /**
+     * Claims {@code count} consecutive slots with a single atomic update.
+     */
+    @Override
+    public void selectServers(List<Server> servers, int[] out, int count) {
+        int n = servers.size();
+        int index = advance(n, count);
+        for (int i = 0; i < count; i++) {
+            out[i] = index;
+            if (++index == n) index = 0;
         }
-        return selected;
+    }
+
+    /**
+     * Atomically moves the counter {@code steps} slots ahead, wrapping inside the update
+     * so it never grows past n and never overflows, and returns the first claimed index.
+     * A plain CAS loop rather than getAndUpdate keeps the call allocation-free.
+     */
+    private int advance(int n, int steps) {
+        int current;
+        int next;
+        do {
+            current = counter.get();
+            next = (int) Math.floorMod((long) current + steps, (long) n);
+        } while (!counter.compareAndSet(current, next));
+        return Math.floorMod(current, n);
     }
 
     @Override
@@ -41,6 +74,6 @@ public class RoundRobinLoadBalancer implements LoadBalancer {
 
     @Override
     public void reset() {
-        counter.set(0);
+        counter.set(start);
     }
 }
@@ -0,0 +1,165 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sliding-Window UCB Load Balancer (Garivier & Moulines, 2011)
+ *
+ * UCB computed over only the last W observations of the whole cluster
+ * (reward = {@link SoftmaxLoadBalancer#toReward} of the latency):
+ *
+ *   index_i = X̄_i(W) + c · sqrt(ln min(t, W) / N_i(W))
+ *
+ * where N_i(W) and X̄_i(W) are the count and mean of server i's observations among the
+ * last W. Anything older is forgotten abruptly, so after drift or a degradation the
+ * estimate is entirely fresh within W requests. A server with no observation in the
+ * window has an infinite index and is tried again; W should therefore be well above the
+ * server count.
+ *
+ * The window is a primitive ring buffer (server index + reward per slot) and per-server
+ * counts and sums are updated incrementally: the oldest entry is subtracted as the newest
+ * is added, O(1) per update and O(servers + W) memory. The sums are recomputed from the
+ * ring once per W updates so floating-point error cannot accumulate. As in
+ * {@link DiscountedUcbLoadBalancer}, X̄_i and 1 / sqrt(N_i) are cached per server and
+ * refreshed only for the servers an update touches, so selectServer is one multiply-add
+ * and compare per server.
+ *
+ * Not thread-safe: like {@link SoftmaxLoadBalancer}, use one instance per thread.
+ */
+public class SlidingWindowUcbLoadBalancer implements LoadBalancer {
+
+    public static final int    DEFAULT_WINDOW = 1_000;
+    public static final double DEFAULT_EXPLORATION_WEIGHT = 0.3;
+
+    private final int    serverCount;
+    private final int    window;
+    private final double explorationWeight;
+
+    // Ring buffer of the last `window` observations
+    private final int[]    windowServers;
+    private final double[] windowRewards;
+    private int head;                          // next slot to write (and the oldest once full)
+    private int filled;
+    private int updatesSinceResum;
+
+    private final int[]    counts;
+    private final double[] sums;
+    private final double[] means;              // X̄_i(W), +∞ if absent from the window
+    private final double[] bonusFactors;       // 1 / sqrt(N_i(W)), 0 if absent
+
+    public SlidingWindowUcbLoadBalancer(int serverCount) {
+        this(serverCount, DEFAULT_WINDOW, DEFAULT_EXPLORATION_WEIGHT);
+    }
+
+    /**
+     * @param serverCount       Number of servers in the cluster
+     * @param window            W: number of most recent observations kept
+     * @param explorationWeight c: scale of the confidence bonus, in reward units
+     */
+    public SlidingWindowUcbLoadBalancer(int serverCount, int window, double explorationWeight) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1, got: " + window);
+        }
+        if (explorationWeight < 0) {
+            throw new IllegalArgumentException("explorationWeight must be non-negative, got: " + explorationWeight);
+        }
+        this.serverCount = serverCount;
+        this.window = window;
+        this.explorationWeight = explorationWeight;
+        this.windowServers = new int[window];
+        this.windowRewards = new double[window];
+        this.counts = new int[serverCount];
+        this.sums = new double[serverCount];
+        this.means = new double[serverCount];
+        this.bonusFactors = new double[serverCount];
+        Arrays.fill(means, Double.POSITIVE_INFINITY);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        double bonus = explorationWeight * Math.sqrt(Math.log(Math.max(filled, 1)));
+        return DiscountedUcbLoadBalancer.argmaxIndex(means, bonusFactors, bonus, servers.size());
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        double reward = SoftmaxLoadBalancer.toReward(latency);
+
+        if (filled == window) {
+            int evicted = windowServers[head];
+            if (--counts[evicted] == 0) {
+                sums[evicted] = 0.0;
+            } else {
+                sums[evicted] -= windowRewards[head];
+            }
+            refresh(evicted);
+        } else {
+            filled++;
+        }
+        windowServers[head] = serverIndex;
+        windowRewards[head] = reward;
+        if (++head == window) head = 0;
+        counts[serverIndex]++;
+        sums[serverIndex] += reward;
+        refresh(serverIndex);
+
+        if (++updatesSinceResum == window) {
+            resum();
+        }
+    }
+
+    private void refresh(int index) {
+        int count = counts[index];
+        if (count == 0) {
+            means[index] = Double.POSITIVE_INFINITY;
+            bonusFactors[index] = 0.0;
+        } else {
+            means[index] = sums[index] / count;
+            bonusFactors[index] = 1.0 / Math.sqrt(count);
+        }
+    }
+
+    private void resum() {
+        Arrays.fill(sums, 0.0);
+        int start = filled == window ? head : 0;
+        for (int j = 0, slot = start; j < filled; j++) {
+            sums[windowServers[slot]] += windowRewards[slot];
+            if (++slot == window) slot = 0;
+        }
+        for (int i = 0; i < serverCount; i++) refresh(i);
+        updatesSinceResum = 0;
+    }
+
+    @Override
+    public String getAlgorithmName() { return "Sliding-Window UCB"; }
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(sums, 0.0);
+        Arrays.fill(means, Double.POSITIVE_INFINITY);
+        Arrays.fill(bonusFactors, 0.0);
+        head = 0;
+        filled = 0;
+        updatesSinceResum = 0;
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    /** Mean reward of each server over the window; 0 for servers absent from it. */
+    public double[] getMeanRewards() {
+        double[] means = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) means[i] = counts[i] == 0 ? 0.0 : sums[i] / counts[i];
+        return means;
+    }
+
+    /** Observations of server i among the last W. */
+    public int getWindowCount(int serverIndex) { return counts[serverIndex]; }
+
+    public int getWindow() { return window; }
+
+    public double getExplorationWeight() { return explorationWeight; }
+}
@@ -57,19 +57,64 @@ import java.util.Random;
  *   τ_t = max(τ_min, τ_0 - decay_rate * t)
  *
  * This starts with exploration and shifts toward exploitation over time.
+ *
+ * CACHED DISTRIBUTION:
+ * --------------------
+ * The unnormalized CDF of exp(Q_i/τ - M) is materialized once and reused.
+ * It is rebuilt lazily when updateReward dirties a Q-value or when τ has moved
+ * more than the configured tolerance, so a selection costs one random draw
+ * plus an O(log K) binary search whenever nothing changed.
+ *
+ * SAMPLING STRATEGIES:
+ * --------------------
+ *   INVERSE_CDF : cached CDF + binary search (default, always exact)
+ *   ALIAS       : Vose alias table, O(1) per draw. The table is rebuilt every
+ *                 K reward updates or every T ms, not per request, so draws may
+ *                 lag the newest Q-values and τ by up to one refresh period.
+ *   GUMBEL_MAX  : argmax_i (Q_i/τ + G_i) with G_i ~ Gumbel(0, 1) drawn fresh per
+ *                 selection. This is an exact Softmax sample that never forms a sum,
+ *                 a normalization or an exp(), so it cannot overflow and needs no
+ *                 log-sum-exp shift. Costs K uniform draws per selection.
  */
 public class SoftmaxLoadBalancer implements LoadBalancer {
 
     private static final Logger log = LoggerFactory.getLogger(SoftmaxLoadBalancer.class);
 
+    private static final int  DEFAULT_ALIAS_REBUILD_UPDATES = 100;
+    private static final long DEFAULT_ALIAS_REBUILD_MILLIS  = 100L;
+
+    /**
+     * How selectServer draws from the Softmax distribution.
+     */
+    public enum SamplingStrategy {
+        INVERSE_CDF,
+        ALIAS,
+        GUMBEL_MAX
+    }
+
     private final double initialTemperature;
     private final double minTemperature;
     private final double temperatureDecayRate;
     private final double learningRate;          // α — EMA learning rate
+    private final SamplingStrategy samplingStrategy;
+    private final long seed;
     private final Random random;
 
     private double[] qValues;                   // Q[i] = estimated reward for server i
     private int[]    selectionCounts;           // how many times each server was selected
+    private double[] cumulativeWeights;         // cached unnormalized CDF of exp(Q_i/τ - M)
+    private double   cdfTotal;                  // Σ exp(Q_i/τ - M) for the cached CDF
+    private double   cdfTemperature;            // τ the cached CDF was built with
+    private int      cdfSize;
+    private boolean  cdfValid;                  // false once a Q-value changes
+    private double   temperatureTolerance;      // max |τ - cdfTemperature| before a rebuild
+
+    private final AliasTable aliasTable = new AliasTable();
+    private int      aliasRebuildUpdates = DEFAULT_ALIAS_REBUILD_UPDATES;   // K
+    private long     aliasRebuildNanos   = DEFAULT_ALIAS_REBUILD_MILLIS * 1_000_000L; // T
+    private int      updatesSinceAliasBuild;
+    private long     aliasBuiltAtNanos;
+    private boolean  aliasBuilt;
     private double   currentTemperature;
     private int      stepCount;
     private int      serverCount;
@@ -86,12 +131,41 @@ public class SoftmaxLoadBalancer implements LoadBalancer {
                                 double minTemperature,
                                 double temperatureDecayRate,
                                 double learningRate) {
+        this(serverCount, initialTemperature, minTemperature, temperatureDecayRate,
+                learningRate, SamplingStrategy.INVERSE_CDF);
+    }
+
+    /**
+     * @param samplingStrategy    How each selection draws from the distribution
+     */
+    public SoftmaxLoadBalancer(int serverCount,
+                                double initialTemperature,
+                                double minTemperature,
+                                double temperatureDecayRate,
+                                double learningRate,
+                                SamplingStrategy samplingStrategy) {
+        this(serverCount, initialTemperature, minTemperature, temperatureDecayRate,
+                learningRate, samplingStrategy, 12345L);
+    }
+
+    /**
+     * @param seed                Seed of the selection Random; reset() rewinds to it
+     */
+    public SoftmaxLoadBalancer(int serverCount,
+                                double initialTemperature,
+                                double minTemperature,
+                                double temperatureDecayRate,
+                                double learningRate,
+                                SamplingStrategy samplingStrategy,
+                                long seed) {
         this.serverCount = serverCount;
         this.initialTemperature = initialTemperature;
         this.minTemperature = minTemperature;
         this.temperatureDecayRate = temperatureDecayRate;
         this.learningRate = learningRate;
-        this.random = new Random(12345L);
+        this.samplingStrategy = samplingStrategy;
+        this.seed = seed;
+        this.random = new Random(seed);
 
         initializeArrays();
     }
@@ -99,6 +173,10 @@ public class SoftmaxLoadBalancer implements LoadBalancer {
     private void initializeArrays() {
         this.qValues = new double[serverCount];
         this.selectionCounts = new int[serverCount];
+        this.cumulativeWeights = new double[serverCount];
+        this.cdfValid = false;
+        this.aliasBuilt = false;
+        this.updatesSinceAliasBuild = 0;
         this.currentTemperature = initialTemperature;
         this.stepCount = 0;
 
@@ -112,74 +190,176 @@ public class SoftmaxLoadBalancer implements LoadBalancer {
     @Override
     public int selectServer(List<Server> servers) {
         int n = servers.size();
+        int selectedIndex;
 
-        // Step 1: Compute scaled Q-values: Q_i / τ
-        double[] scaledQ = new double[n];
-        for (int i = 0; i < n; i++) {
-            scaledQ[i] = qValues[i] / currentTemperature;
+        if (samplingStrategy == SamplingStrategy.ALIAS) {
+            selectedIndex = sampleFromAliasTable(n);
+        } else if (samplingStrategy == SamplingStrategy.GUMBEL_MAX) {
+            selectedIndex = sampleGumbelMax(n);
+        } else {
+            // Rebuild the cached CDF only if a Q-value changed or τ drifted too far
+            if (!cdfValid || cdfSize != n
+                    || Math.abs(currentTemperature - cdfTemperature) > temperatureTolerance) {
+                rebuildDistribution(n);
+            }
+
+            // One random draw + binary search over the cached unnormalized CDF
+            selectedIndex = sampleFromDistribution(cumulativeWeights, n, cdfTotal);
         }
 
-        // Step 2: Numerical stability — subtract max (log-sum-exp trick)
-        double maxVal = Double.NEGATIVE_INFINITY;
-        for (double v : scaledQ) {
-            if (v > maxVal) maxVal = v;
+        // Update temperature (cooling schedule)
+        selectionCounts[selectedIndex]++;
+        stepCount++;
+        currentTemperature = Math.max(minTemperature, initialTemperature - temperatureDecayRate * stepCount);
+
+        if (log.isDebugEnabled()) {
+            log.debug("[Softmax] Step={}, τ={:.4f}, selected=Server-{}, probs={}",
+                    stepCount, currentTemperature, selectedIndex, formatProbs(getProbabilities(n)));
         }
 
-        // Step 3: Compute exp(Q_i/τ - max) for each server
-        double[] expValues = new double[n];
-        double sumExp = 0.0;
-        for (int i = 0; i < n; i++) {
-            expValues[i] = Math.exp(scaledQ[i] - maxVal);
-            sumExp += expValues[i];
+        return selectedIndex;
+    }
+
+    /**
+     * Draws {@code count} selections from a single distribution. The CDF or alias table
+     * is refreshed at most once up front and τ is held fixed for the whole batch;
+     * the cooling schedule then advances by {@code count} steps at once.
+     */
+    @Override
+    public void selectServers(List<Server> servers, int[] out, int count) {
+        int n = servers.size();
+
+        if (samplingStrategy == SamplingStrategy.ALIAS) {
+            refreshAliasTableIfDue(n);
+            for (int i = 0; i < count; i++) {
+                out[i] = aliasTable.sample(random);
+            }
+        } else if (samplingStrategy == SamplingStrategy.GUMBEL_MAX) {
+            for (int i = 0; i < count; i++) {
+                out[i] = sampleGumbelMax(n);
+            }
+        } else {
+            if (!cdfValid || cdfSize != n
+                    || Math.abs(currentTemperature - cdfTemperature) > temperatureTolerance) {
+                rebuildDistribution(n);
+            }
+            for (int i = 0; i < count; i++) {
+                out[i] = sampleFromDistribution(cumulativeWeights, n, cdfTotal);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            selectionCounts[out[i]]++;
+        }
+        stepCount += count;
+        currentTemperature = Math.max(minTemperature, initialTemperature - temperatureDecayRate * stepCount);
+    }
+
+    /**
+     * Materializes the unnormalized CDF of exp(Q_i/τ - M) into the reusable buffer.
+     * The buffer only grows when the cluster grows, so steady state allocates nothing.
+     */
+    private void rebuildDistribution(int n) {
+        if (cumulativeWeights.length < n) {
+            cumulativeWeights = new double[n];
         }
 
-        // Step 4: Normalize to get probabilities
-        double[] probabilities = new double[n];
+        // Pass 1: max(Q_i / τ) = max(Q_i) / τ since τ > 0 (log-sum-exp shift)
+        double maxQ = Double.NEGATIVE_INFINITY;
         for (int i = 0; i < n; i++) {
-            probabilities[i] = expValues[i] / sumExp;
+            if (qValues[i] > maxQ) maxQ = qValues[i];
         }
 
-        // Step 5: Sample from the probability distribution
-        int selectedIndex = sampleFromDistribution(probabilities);
+        // Pass 2: fused scale + exp + running sum; no division by Σ exp is needed
+        double invTemperature = 1.0 / currentTemperature;
+        double sumExp = 0.0;
+        for (int i = 0; i < n; i++) {
+            sumExp += Math.exp((qValues[i] - maxQ) * invTemperature);
+            cumulativeWeights[i] = sumExp;
+        }
 
-        // Step 6: Update temperature (cooling schedule)
-        selectionCounts[selectedIndex]++;
-        stepCount++;
-        currentTemperature = Math.max(minTemperature, initialTemperature - temperatureDecayRate * stepCount);
+        cdfTotal = sumExp;
+        cdfSize = n;
+        cdfTemperature = currentTemperature;
+        cdfValid = true;
+    }
 
-        if (log.isDebugEnabled()) {
-            log.debug("[Softmax] Step={}, τ={:.4f}, selected=Server-{}, probs={}",
-                    stepCount, currentTemperature, selectedIndex, formatProbs(probabilities));
+    /**
+     * Samples an index using inverse CDF over unnormalized cumulative weights:
+     * the first i with sample ≤ cumulative[i], found by binary search.
+     */
+    private int sampleFromDistribution(double[] cumulative, int n, double total) {
+        double sample = random.nextDouble() * total;
+        int lo = 0;
+        int hi = n - 1;   // fallback to the last index absorbs floating point rounding
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sample <= cumulative[mid]) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
         }
+        return lo;
+    }
 
-        return selectedIndex;
+    /**
+     * O(1) draw from the alias table, rebuilding it first if the refresh cadence is due.
+     */
+    private int sampleFromAliasTable(int n) {
+        refreshAliasTableIfDue(n);
+        return aliasTable.sample(random);
+    }
+
+    private void refreshAliasTableIfDue(int n) {
+        if (!aliasBuilt || aliasTable.size() != n
+                || updatesSinceAliasBuild >= aliasRebuildUpdates
+                || System.nanoTime() - aliasBuiltAtNanos >= aliasRebuildNanos) {
+            aliasTable.buildSoftmax(qValues, n, currentTemperature);
+            aliasBuiltAtNanos = System.nanoTime();
+            updatesSinceAliasBuild = 0;
+            aliasBuilt = true;
+        }
     }
 
     /**
-     * Samples an index from a discrete probability distribution using inverse CDF.
+     * Gumbel-max trick: argmax_i (Q_i/τ + G_i) is distributed as Softmax(Q/τ).
+     * Multiplying through by τ > 0 keeps the argmax, so we compare Q_i + τ·G_i
+     * and skip the division as well. G = -ln(-ln U) for U uniform on [0, 1);
+     * U = 0 yields G = -∞, which simply never wins.
      */
-    private int sampleFromDistribution(double[] probabilities) {
-        double sample = random.nextDouble();
-        double cumulative = 0.0;
-        for (int i = 0; i < probabilities.length; i++) {
-            cumulative += probabilities[i];
-            if (sample <= cumulative) {
-                return i;
+    private int sampleGumbelMax(int n) {
+        double temperature = currentTemperature;
+        int best = 0;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double gumbel = -Math.log(-Math.log(random.nextDouble()));
+            double score = qValues[i] + temperature * gumbel;
+            if (score > bestScore) {
+                bestScore = score;
+                best = i;
             }
         }
-        // Fallback for floating point rounding errors
-        return probabilities.length - 1;
+        return best;
     }
 
     @Override
     public void updateReward(int serverIndex, double latency) {
-        // Convert latency to reward (minimize latency = maximize negative latency)
-        // We normalize by dividing by 100 to keep Q-values in a reasonable range
-        double reward = -latency / 100.0;
+        double reward = toReward(latency);
 
         // Exponential Moving Average update (handles non-stationary distributions)
         qValues[serverIndex] = (1.0 - learningRate) * qValues[serverIndex]
                               + learningRate * reward;
+        cdfValid = false;
+        updatesSinceAliasBuild++;
+    }
+
+    /**
+     * Converts latency to reward (minimize latency = maximize negative latency).
+     * We normalize by dividing by 100 to keep Q-values in a reasonable range.
+     */
+    static double toReward(double latency) {
+        return -latency / 100.0;
     }
 
     // --- Accessors for visualization / reporting ---
@@ -209,6 +389,34 @@ public class SoftmaxLoadBalancer implements LoadBalancer {
         return probs;
     }
 
+    /**
+     * Sets how far τ may drift from the value the cached CDF was built with
+     * before selection rebuilds it. 0 (the default) rebuilds on every τ change;
+     * larger values trade a slightly stale temperature for fewer exp() passes.
+     */
+    public void setTemperatureTolerance(double temperatureTolerance) {
+        if (temperatureTolerance < 0.0) {
+            throw new IllegalArgumentException("temperatureTolerance must be >= 0, got: " + temperatureTolerance);
+        }
+        this.temperatureTolerance = temperatureTolerance;
+    }
+
+    public double getTemperatureTolerance() { return temperatureTolerance; }
+
+    /**
+     * Sets the ALIAS refresh cadence: the table is rebuilt after {@code updates}
+     * reward updates or once it is {@code millis} old, whichever comes first.
+     */
+    public void setAliasRebuildCadence(int updates, long millis) {
+        if (updates < 1 || millis < 0) {
+            throw new IllegalArgumentException("alias cadence must be updates >= 1 and millis >= 0, got: "
+                    + updates + ", " + millis);
+        }
+        this.aliasRebuildUpdates = updates;
+        this.aliasRebuildNanos = millis * 1_000_000L;
+    }
+
+    public SamplingStrategy getSamplingStrategy() { return samplingStrategy; }
     public int[] getSelectionCounts() { return selectionCounts.clone(); }
     public double getCurrentTemperature() { return currentTemperature; }
     public int getStepCount() { return stepCount; }
@@ -219,6 +427,7 @@ public class SoftmaxLoadBalancer implements LoadBalancer {
     @Override
     public void reset() {
         initializeArrays();
+        random.setSeed(seed);
     }
 
     private String formatProbs(double[] probs) {
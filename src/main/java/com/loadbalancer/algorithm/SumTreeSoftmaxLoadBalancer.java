@@ -0,0 +1,235 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sum-Tree Softmax Load Balancer
+ *
+ * Same Softmax (Boltzmann) policy and EMA reward model as {@link SoftmaxLoadBalancer},
+ * but the weights exp((Q_i - A) / τ) live in the leaves of a binary sum-tree
+ * (heap layout, internal node = sum of its two children):
+ *
+ *   updateReward : rewrite one leaf and the sums on its root path   — O(log K)
+ *   selectServer : draw u ∈ [0, Σw) and descend from the root        — O(log K)
+ *
+ * A is an anchor Q-value fixed at the last full rebuild instead of the running max,
+ * so a single update never touches the other leaves. The tree is rebuilt in O(K)
+ * only when
+ *   - an update would push an exponent past MAX_EXPONENT (overflow guard),
+ *   - the total weight has underflowed (every server got much worse than A), or
+ *   - τ has moved more than the temperature tolerance since the last rebuild.
+ *
+ * With τ-decay and a zero tolerance the last case still rebuilds every step;
+ * large pools should cool to τ_min quickly or use a non-zero tolerance.
+ */
+public class SumTreeSoftmaxLoadBalancer implements LoadBalancer {
+
+    // exp(600) ≈ 3.8e260 — leaves headroom for summing many leaves below Double.MAX_VALUE
+    private static final double MAX_EXPONENT = 600.0;
+    // Below this total the relative precision of the leaves is no longer trustworthy
+    private static final double MIN_TOTAL_WEIGHT = 1e-250;
+
+    private final double initialTemperature;
+    private final double minTemperature;
+    private final double temperatureDecayRate;
+    private final double learningRate;
+    private final int    serverCount;
+    private final int    leafOffset;            // first leaf index (power of two ≥ serverCount)
+    private final long   seed;
+    private final Random random;
+
+    private double[] qValues;
+    private int[]    selectionCounts;
+    private double[] tree;                      // tree[1] = root, leaves at leafOffset + i
+    private double   anchorQ;                   // A in exp((Q_i - A) / τ)
+    private double   treeTemperature;           // τ the leaves were computed with
+    private boolean  treeValid;
+    private double   temperatureTolerance;
+    private double   currentTemperature;
+    private int      stepCount;
+
+    /**
+     * @param serverCount         Number of servers in the cluster
+     * @param initialTemperature  Initial τ — controls explore/exploit tradeoff
+     * @param minTemperature      Minimum τ — prevents full greedy behavior
+     * @param temperatureDecayRate Rate at which τ decreases per step (0 = no decay)
+     * @param learningRate        α for EMA updates (0.0 < α ≤ 1.0)
+     */
+    public SumTreeSoftmaxLoadBalancer(int serverCount,
+                                       double initialTemperature,
+                                       double minTemperature,
+                                       double temperatureDecayRate,
+                                       double learningRate) {
+        this(serverCount, initialTemperature, minTemperature, temperatureDecayRate, learningRate, 12345L);
+    }
+
+    /**
+     * @param seed                Seed of the selection Random; reset() rewinds to it
+     */
+    public SumTreeSoftmaxLoadBalancer(int serverCount,
+                                       double initialTemperature,
+                                       double minTemperature,
+                                       double temperatureDecayRate,
+                                       double learningRate,
+                                       long seed) {
+        this.serverCount = serverCount;
+        this.initialTemperature = initialTemperature;
+        this.minTemperature = minTemperature;
+        this.temperatureDecayRate = temperatureDecayRate;
+        this.learningRate = learningRate;
+        this.leafOffset = Integer.highestOneBit(Math.max(1, serverCount - 1)) << 1;
+        this.seed = seed;
+        this.random = new Random(seed);
+
+        initializeArrays();
+    }
+
+    private void initializeArrays() {
+        this.qValues = new double[serverCount];
+        this.selectionCounts = new int[serverCount];
+        this.tree = new double[2 * leafOffset];
+        this.currentTemperature = initialTemperature;
+        this.stepCount = 0;
+        this.treeValid = false;
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        if (!treeValid || tree[1] < MIN_TOTAL_WEIGHT
+                || Math.abs(currentTemperature - treeTemperature) > temperatureTolerance) {
+            rebuildTree();
+        }
+
+        int selectedIndex = sampleFromTree();
+
+        selectionCounts[selectedIndex]++;
+        stepCount++;
+        currentTemperature = Math.max(minTemperature, initialTemperature - temperatureDecayRate * stepCount);
+
+        return selectedIndex;
+    }
+
+    /**
+     * Descends from the root, going left while the sample falls inside the left subtree.
+     */
+    private int sampleFromTree() {
+        double sample = random.nextDouble() * tree[1];
+        int node = 1;
+        while (node < leafOffset) {
+            int left = node << 1;
+            // Never step into an all-zero right subtree (padding leaves, rounding at the edge)
+            if (sample < tree[left] || tree[left + 1] <= 0.0) {
+                node = left;
+            } else {
+                sample -= tree[left];
+                node = left + 1;
+            }
+        }
+        return Math.min(node - leafOffset, serverCount - 1);
+    }
+
+    /**
+     * Recomputes every leaf against a fresh anchor (the current max Q) and all sums — O(K).
+     */
+    private void rebuildTree() {
+        double maxQ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < serverCount; i++) {
+            if (qValues[i] > maxQ) maxQ = qValues[i];
+        }
+        anchorQ = maxQ;
+        treeTemperature = currentTemperature;
+
+        double invTemperature = 1.0 / treeTemperature;
+        for (int i = 0; i < serverCount; i++) {
+            tree[leafOffset + i] = Math.exp((qValues[i] - anchorQ) * invTemperature);
+        }
+        for (int node = leafOffset - 1; node >= 1; node--) {
+            tree[node] = tree[node << 1] + tree[(node << 1) + 1];
+        }
+        treeValid = true;
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        double reward = SoftmaxLoadBalancer.toReward(latency);
+        double q = (1.0 - learningRate) * qValues[serverIndex] + learningRate * reward;
+        qValues[serverIndex] = q;
+
+        if (!treeValid) {
+            return;     // next selection rebuilds everything anyway
+        }
+        double exponent = (q - anchorQ) / treeTemperature;
+        if (exponent > MAX_EXPONENT) {
+            treeValid = false;
+            return;
+        }
+
+        // Rewrite the leaf, then recompute the sums on its path to the root
+        int node = leafOffset + serverIndex;
+        tree[node] = Math.exp(exponent);
+        for (node >>= 1; node >= 1; node >>= 1) {
+            tree[node] = tree[node << 1] + tree[(node << 1) + 1];
+        }
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    public double[] getQValues() {
+        return qValues.clone();
+    }
+
+    /**
+     * The policy at the current τ. Read from the leaves when they are up to date, otherwise
+     * computed into a fresh array; the tree itself is never rebuilt here, so reading the
+     * probabilities cannot change what later selections draw.
+     */
+    public double[] getProbabilities(int serverCount) {
+        double[] probs = new double[serverCount];
+        if (treeValid && tree[1] >= MIN_TOTAL_WEIGHT && currentTemperature == treeTemperature) {
+            for (int i = 0; i < serverCount; i++) {
+                probs[i] = tree[leafOffset + i] / tree[1];
+            }
+            return probs;
+        }
+        double maxQ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < serverCount; i++) {
+            if (qValues[i] > maxQ) maxQ = qValues[i];
+        }
+        double sum = 0.0;
+        for (int i = 0; i < serverCount; i++) {
+            probs[i] = Math.exp((qValues[i] - maxQ) / currentTemperature);
+            sum += probs[i];
+        }
+        for (int i = 0; i < serverCount; i++) {
+            probs[i] /= sum;
+        }
+        return probs;
+    }
+
+    /**
+     * Sets how far τ may drift from the value the leaves were computed with
+     * before selection rebuilds the tree (0 = rebuild on every τ change).
+     */
+    public void setTemperatureTolerance(double temperatureTolerance) {
+        if (temperatureTolerance < 0.0) {
+            throw new IllegalArgumentException("temperatureTolerance must be >= 0, got: " + temperatureTolerance);
+        }
+        this.temperatureTolerance = temperatureTolerance;
+    }
+
+    public int[] getSelectionCounts() { return selectionCounts.clone(); }
+    public double getCurrentTemperature() { return currentTemperature; }
+    public int getStepCount() { return stepCount; }
+
+    @Override
+    public String getAlgorithmName() { return "Softmax (sum-tree)"; }
+
+    @Override
+    public void reset() {
+        initializeArrays();
+        random.setSeed(seed);
+    }
+}
@@ -0,0 +1,127 @@
+package com.loadbalancer.algorithm;
+
+import com.loadbalancer.model.Server;
+
+import java.util.List;
+
+/**
+ * Thompson Sampling Load Balancer
+ *
+ * Models each server's latency as Normal(μ_i, 1/λ_i) with unknown mean and precision, and
+ * keeps the conjugate Normal-Gamma posterior over (μ_i, λ_i). Each selection draws one
+ * plausible mean per server and sends the request to the lowest:
+ *
+ *   λ_i ~ Gamma(α_i, β_i)      μ_i | λ_i ~ Normal(m_i, 1 / (κ_i λ_i))      pick argmin μ_i
+ *
+ * With n_i observations of mean x̄_i and variance s²_i, the posterior parameters are
+ *
+ *   κ_i = κ_0 + n_i                     m_i = (κ_0 μ_0 + n_i x̄_i) / κ_i
+ *   α_i = α_0 + n_i / 2                 β_i = β_0 + ½ (n_i s²_i + κ_0 n_i (x̄_i - μ_0)² / κ_i)
+ *
+ * A server is chosen with exactly the posterior probability that it is the fastest, so
+ * exploration fades by itself as evidence accumulates; there is no temperature or
+ * confidence constant to tune. Unobserved servers draw from the wide prior and are
+ * tried early.
+ *
+ * DRIFT: n_i, x̄_i and s²_i are discounted by γ per observation (see
+ * {@link DiscountedStatistics}), so the posterior tracks a server that drifts or degrades,
+ * and a server left idle widens back towards the prior until it is sampled again.
+ *
+ * SAMPLING: every selection costs one gamma and one normal variate per server. They come
+ * from a {@link ZigguratSampler} on a SplittableRandom, roughly 15× faster than the
+ * synchronized {@link java.util.Random#nextGaussian}, with no allocation per draw.
+ *
+ * Not thread-safe: like {@link SoftmaxLoadBalancer}, use one instance per thread.
+ */
+public class ThompsonSamplingLoadBalancer implements LoadBalancer {
+
+    public static final double DEFAULT_DISCOUNT = 0.999;
+
+    // Normal-Gamma prior: mean 0 ms backed by 0.01 pseudo-observations, and precision
+    // λ ~ Gamma(1, 100), i.e. E[λ] = 0.01 ms⁻². At shape 1 the implied latency variance 1/λ
+    // has no finite mean, a deliberately heavy tail so the first samples dominate quickly
+    public static final double PRIOR_MEAN  = 0.0;
+    public static final double PRIOR_COUNT = 0.01;
+    public static final double PRIOR_SHAPE = 1.0;
+    public static final double PRIOR_RATE  = 100.0;
+
+    private final int    serverCount;
+    private final double discount;
+    private final long   seed;
+
+    private final DiscountedStatistics statistics;
+    private final ZigguratSampler sampler;
+
+    public ThompsonSamplingLoadBalancer(int serverCount) {
+        this(serverCount, DEFAULT_DISCOUNT, 86420L);
+    }
+
+    /**
+     * @param serverCount Number of servers in the cluster
+     * @param discount    γ ∈ (0, 1]: weight kept by an observation per later observation
+     * @param seed        Seed of the posterior draws; reset() rewinds to it
+     */
+    public ThompsonSamplingLoadBalancer(int serverCount, double discount, long seed) {
+        this.serverCount = serverCount;
+        this.discount = discount;
+        this.seed = seed;
+        this.statistics = new DiscountedStatistics(serverCount, discount);
+        this.sampler = new ZigguratSampler(seed);
+    }
+
+    @Override
+    public int selectServer(List<Server> servers) {
+        int n = servers.size();
+        int best = 0;
+        double bestDraw = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double count = statistics.count(i);
+            double mean = statistics.mean(i);
+            double kappa = PRIOR_COUNT + count;
+            double offset = mean - PRIOR_MEAN;
+            double rate = PRIOR_RATE + 0.5 * (count * statistics.variance(i)
+                    + PRIOR_COUNT * count * offset * offset / kappa);
+
+            double precision = sampler.nextGamma(PRIOR_SHAPE + 0.5 * count) / rate;
+            double draw = (PRIOR_COUNT * PRIOR_MEAN + count * mean) / kappa
+                    + sampler.nextGaussian() / Math.sqrt(kappa * precision);
+            if (draw < bestDraw) {
+                best = i;
+                bestDraw = draw;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void updateReward(int serverIndex, double latency) {
+        // The posterior is over latency itself, so no reward transform is needed
+        statistics.add(serverIndex, latency);
+    }
+
+    @Override
+    public String getAlgorithmName() { return "Thompson Sampling"; }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+        sampler.setSeed(seed);
+    }
+
+    // --- Accessors for visualization / reporting ---
+
+    /** Posterior mean latency m_i of each server (ms). */
+    public double[] getPosteriorMeans() {
+        double[] means = new double[serverCount];
+        for (int i = 0; i < serverCount; i++) {
+            double count = statistics.count(i);
+            means[i] = (PRIOR_COUNT * PRIOR_MEAN + count * statistics.mean(i)) / (PRIOR_COUNT + count);
+        }
+        return means;
+    }
+
+    /** Discounted observation count n_i of server i. */
+    public double getEffectiveCount(int serverIndex) { return statistics.count(serverIndex); }
+
+    public double getDiscount() { return discount; }
+}
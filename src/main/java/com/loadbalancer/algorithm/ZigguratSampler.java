@@ -0,0 +1,115 @@
+package com.loadbalancer.algorithm;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fast normal and gamma variates on top of {@link SplittableRandom}.
+ *
+ * nextGaussian() is the 128-layer ziggurat of Marsaglia & Tsang (2000): about 98.8% of
+ * draws take one 64-bit random number, a table lookup, a compare and a multiply. The
+ * layer index and the value come from disjoint bits of that number, which avoids the
+ * correlation of the original 32-bit version. nextGamma() is Marsaglia & Tsang's
+ * squeeze method, one normal and one uniform per draw in the common case.
+ *
+ * Unlike {@link java.util.Random#nextGaussian}, nothing is synchronized or cached between
+ * calls. Not thread-safe: use one sampler per thread.
+ */
+final class ZigguratSampler {
+
+    private static final int    LAYERS = 128;
+    private static final double R      = 3.442619855899;          // start of the tail
+    private static final double V      = 9.91256303526217e-3;     // area of each layer
+    private static final double M1     = 2147483648.0;            // 2^31
+
+    private static final int[]    KN = new int[LAYERS];
+    private static final double[] WN = new double[LAYERS];
+    private static final double[] FN = new double[LAYERS];
+
+    static {
+        double dn = R;
+        double tn = dn;
+        double q = V / Math.exp(-0.5 * dn * dn);
+        KN[0] = (int) ((dn / q) * M1);
+        KN[1] = 0;
+        WN[0] = q / M1;
+        WN[LAYERS - 1] = dn / M1;
+        FN[0] = 1.0;
+        FN[LAYERS - 1] = Math.exp(-0.5 * dn * dn);
+        for (int i = LAYERS - 2; i >= 1; i--) {
+            dn = Math.sqrt(-2.0 * Math.log(V / dn + Math.exp(-0.5 * dn * dn)));
+            KN[i + 1] = (int) ((dn / tn) * M1);
+            tn = dn;
+            FN[i] = Math.exp(-0.5 * dn * dn);
+            WN[i] = dn / M1;
+        }
+    }
+
+    private SplittableRandom random;
+
+    ZigguratSampler(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /** Restarts the stream from {@code seed}. */
+    void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    /** Standard normal N(0, 1). */
+    double nextGaussian() {
+        while (true) {
+            long bits = random.nextLong();
+            int layer = (int) bits & (LAYERS - 1);
+            int hz = (int) (bits >> 32);
+            if (Math.abs(hz) < KN[layer]) {
+                return hz * WN[layer];
+            }
+            double x = hz * WN[layer];
+            if (layer == 0) {
+                return tail(hz > 0);
+            }
+            if (FN[layer] + random.nextDouble() * (FN[layer - 1] - FN[layer]) < Math.exp(-0.5 * x * x)) {
+                return x;
+            }
+        }
+    }
+
+    // Marsaglia's method for the normal tail beyond R
+    private double tail(boolean positive) {
+        double x;
+        double y;
+        do {
+            x = -Math.log(1.0 - random.nextDouble()) / R;
+            y = -Math.log(1.0 - random.nextDouble());
+        } while (y + y < x * x);
+        return positive ? R + x : -R - x;
+    }
+
+    /** Gamma(shape, 1); divide by a rate β for Gamma(shape, β). */
+    double nextGamma(double shape) {
+        if (shape < 1.0) {
+            // Gamma(a) = Gamma(a + 1) · U^(1/a)
+            double u = 1.0 - random.nextDouble();
+            return nextGamma(shape + 1.0) * Math.pow(u, 1.0 / shape);
+        }
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+        while (true) {
+            double x;
+            double v;
+            do {
+                x = nextGaussian();
+                v = 1.0 + c * x;
+            } while (v <= 0.0);
+            v = v * v * v;
+            double u = random.nextDouble();
+            double x2 = x * x;
+            if (u < 1.0 - 0.0331 * x2 * x2) {
+                return d * v;
+            }
+            if (Math.log(u) < 0.5 * x2 + d * (1.0 - v + Math.log(v))) {
+                return d * v;
+            }
+        }
+    }
+}
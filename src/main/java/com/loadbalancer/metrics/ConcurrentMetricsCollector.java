@@ -0,0 +1,239 @@
+package com.loadbalancer.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counterpart of {@link MetricsCollector} for multi-threaded request handling.
+ *
+ * Every recording thread owns a shard — a {@link LatencyHistogram}, running count/sum/
+ * min/max/Welford moments, regret and per-server counts — that only it writes, so
+ * record() is wait-free: no locks, no CAS, and no cache line shared with other writers.
+ * Regret is summed per shard and combined on read, DoubleAdder-style.
+ *
+ * snapshot() merges the shards on read. Each shard keeps two accumulators; the reader
+ * swaps in the spare, waits for at most one in-flight record() on the retired one
+ * (a single-writer phaser: the writer's sequence number is odd while it is recording),
+ * then folds it into a running total. A snapshot therefore never sees a half-applied
+ * request: count, sum, histogram and regret always describe the same set of requests.
+ *
+ * Raw series, rolling averages and t-digests are not kept; use one {@link MetricsCollector}
+ * per thread and {@link MetricsCollector#mergeLatencyDigests} when those are needed.
+ */
+public class ConcurrentMetricsCollector {
+
+    private final String algorithmName;
+    private final double optimalLatency;
+    private final int    significantDigits;
+
+    private final CopyOnWriteArrayList<Shard> shards = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Shard> localShard = ThreadLocal.withInitial(this::registerShard);
+
+    // Everything already drained from the shards; guarded by snapshot()'s lock
+    private final Accumulator total;
+
+    public ConcurrentMetricsCollector(String algorithmName, double optimalLatency) {
+        this(algorithmName, optimalLatency, LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param significantDigits Precision of the percentile histogram (1–5)
+     */
+    public ConcurrentMetricsCollector(String algorithmName, double optimalLatency, int significantDigits) {
+        this.algorithmName = algorithmName;
+        this.optimalLatency = optimalLatency;
+        this.significantDigits = significantDigits;
+        this.total = new Accumulator(significantDigits);
+    }
+
+    /**
+     * Running statistics for one set of requests. Written by exactly one thread at a time.
+     */
+    private static final class Accumulator {
+        final LatencyHistogram histogram;
+        long   count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double mean;
+        double sumSquaredDeviations;
+        double regret;
+        long[] selectionCounts = new long[8];
+
+        Accumulator(int significantDigits) {
+            this.histogram = new LatencyHistogram(significantDigits, LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_MS);
+        }
+
+        void record(int serverIndex, double latency, double optimalLatency) {
+            histogram.record(latency);
+            count++;
+            sum += latency;
+            if (latency < min) min = latency;
+            if (latency > max) max = latency;
+            double delta = latency - mean;
+            mean += delta / count;
+            sumSquaredDeviations += delta * (latency - mean);
+
+            if (serverIndex >= 0) {
+                if (serverIndex >= selectionCounts.length) {
+                    selectionCounts = Arrays.copyOf(selectionCounts, Math.max(serverIndex + 1, selectionCounts.length * 2));
+                }
+                selectionCounts[serverIndex]++;
+            }
+
+            double excess = latency - optimalLatency;
+            if (excess > 0) {
+                regret += excess;
+            }
+        }
+
+        /**
+         * Adds {@code other} into this accumulator (Chan et al. parallel variance merge).
+         */
+        void add(Accumulator other) {
+            if (other.count == 0) return;
+            histogram.add(other.histogram);
+            long merged = count + other.count;
+            double delta = other.mean - mean;
+            mean += delta * other.count / merged;
+            sumSquaredDeviations += other.sumSquaredDeviations + delta * delta * count * other.count / merged;
+            count = merged;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            regret += other.regret;
+            if (other.selectionCounts.length > selectionCounts.length) {
+                selectionCounts = Arrays.copyOf(selectionCounts, other.selectionCounts.length);
+            }
+            for (int i = 0; i < other.selectionCounts.length; i++) {
+                selectionCounts[i] += other.selectionCounts[i];
+            }
+        }
+
+        void clear() {
+            histogram.reset();
+            count = 0;
+            sum = 0.0;
+            min = Double.POSITIVE_INFINITY;
+            max = Double.NEGATIVE_INFINITY;
+            mean = 0.0;
+            sumSquaredDeviations = 0.0;
+            regret = 0.0;
+            Arrays.fill(selectionCounts, 0);
+        }
+    }
+
+    /**
+     * One recording thread's state. The writer bumps {@code sequence} to odd before touching
+     * {@code active} and back to even afterwards; the reader swaps {@code active} for
+     * {@code spare} and waits until the sequence has left the odd value it observed.
+     */
+    private static final class Shard {
+        final AtomicLong     sequence = new AtomicLong();
+        volatile Accumulator active;
+        Accumulator          spare;                 // reader-owned
+
+        Shard(int significantDigits) {
+            this.active = new Accumulator(significantDigits);
+            this.spare = new Accumulator(significantDigits);
+        }
+    }
+
+    private Shard registerShard() {
+        Shard shard = new Shard(significantDigits);
+        shards.add(shard);
+        return shard;
+    }
+
+    /**
+     * Records a completed request's result. Wait-free; safe to call from any thread.
+     */
+    public void record(int serverIndex, double latency) {
+        Shard shard = localShard.get();
+        long sequence = shard.sequence.get();
+        shard.sequence.set(sequence + 1);            // volatile store orders it before reading active
+        shard.active.record(serverIndex, latency, optimalLatency);
+        shard.sequence.lazySet(sequence + 2);        // release: the record is visible once even
+    }
+
+    /**
+     * Drains every shard into the running total and returns an immutable view of it.
+     * Concurrent record() calls are never blocked; each is either fully included or
+     * left for the next snapshot.
+     */
+    public synchronized Snapshot snapshot() {
+        for (Shard shard : shards) {
+            Accumulator retired = shard.active;
+            shard.active = shard.spare;
+            long sequence = shard.sequence.get();
+            if ((sequence & 1) != 0) {
+                while (shard.sequence.get() == sequence) {
+                    Thread.onSpinWait();
+                }
+            }
+            total.add(retired);
+            retired.clear();
+            shard.spare = retired;
+        }
+
+        Accumulator copy = new Accumulator(significantDigits);
+        copy.add(total);
+        return new Snapshot(algorithmName, copy);
+    }
+
+    /**
+     * Number of threads that have recorded at least once.
+     */
+    public int getShardCount() { return shards.size(); }
+
+    public String getAlgorithmName() { return algorithmName; }
+
+    public double getOptimalLatency() { return optimalLatency; }
+
+    /**
+     * Point-in-time summary produced by {@link #snapshot()}. All figures describe the same
+     * set of requests.
+     */
+    public static final class Snapshot {
+        private final String algorithmName;
+        private final Accumulator stats;
+
+        private Snapshot(String algorithmName, Accumulator stats) {
+            this.algorithmName = algorithmName;
+            this.stats = stats;
+        }
+
+        public String getAlgorithmName() { return algorithmName; }
+
+        public long getTotalRequests() { return stats.count; }
+
+        public double getTotalLatency() { return stats.sum; }
+
+        public double getMeanLatency() { return stats.count == 0 ? 0.0 : stats.mean; }
+
+        public double getMinLatency() { return stats.count == 0 ? 0.0 : stats.min; }
+
+        public double getMaxLatency() { return stats.count == 0 ? 0.0 : stats.max; }
+
+        public double getStdDev() {
+            return stats.count == 0 ? 0.0 : Math.sqrt(stats.sumSquaredDeviations / stats.count);
+        }
+
+        /**
+         * Returns the Nth percentile latency, accurate to the histogram's significant digits.
+         */
+        public double getPercentile(double percentile) {
+            return stats.histogram.getValueAtPercentile(percentile);
+        }
+
+        public double getCumulativeRegret() { return stats.regret; }
+
+        /**
+         * Returns how many requests each server received, for servers 0 .. serverCount-1.
+         */
+        public long[] getSelectionCounts(int serverCount) {
+            return Arrays.copyOf(stats.selectionCounts, serverCount);
+        }
+    }
+}
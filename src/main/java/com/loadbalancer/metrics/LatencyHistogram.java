@@ -0,0 +1,199 @@
+package com.loadbalancer.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-memory, log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Latencies (ms) are tracked in integer microseconds. Values are grouped into
+ * power-of-two buckets, each split into 2^k linear sub-buckets, where 2^k is the
+ * smallest power of two ≥ 2·10^significantDigits. Every recorded value is therefore
+ * kept to within 10^-significantDigits relative error (or 1 µs, whichever is larger),
+ * using a counts array whose size depends only on the value range and precision:
+ *
+ *   3 significant digits, 1 µs … 1 h  →  23 buckets × 1 024 sub-buckets ≈ 188 KB
+ *
+ * record() is O(1) — a leading-zero count and a shift — and getValueAtPercentile()
+ * walks the counts array once, O(bucket count), independent of how many values were
+ * recorded. Min and max are tracked exactly.
+ */
+public class LatencyHistogram {
+
+    public static final int    DEFAULT_SIGNIFICANT_DIGITS = 3;
+    public static final double DEFAULT_HIGHEST_TRACKABLE_MS = 3_600_000.0;   // 1 hour
+
+    private static final double UNITS_PER_MS = 1000.0;                       // µs resolution
+
+    private final int significantDigits;
+    private final long highestTrackableUnits;
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final int leadingZeroCountBase;
+    private final long[] counts;
+
+    private long totalCount;
+    private double minValue = Double.POSITIVE_INFINITY;
+    private double maxValue = Double.NEGATIVE_INFINITY;
+
+    public LatencyHistogram() {
+        this(DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_MS);
+    }
+
+    /**
+     * @param significantDigits  Decimal digits of precision kept for every value (1–5)
+     * @param highestTrackableMs Largest latency tracked; larger values are clamped to it
+     */
+    public LatencyHistogram(int significantDigits, double highestTrackableMs) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("significantDigits must be 1..5, got: " + significantDigits);
+        }
+        this.significantDigits = significantDigits;
+        this.highestTrackableUnits = Math.max(2, (long) Math.ceil(highestTrackableMs * UNITS_PER_MS));
+
+        long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(largestValueWithSingleUnitResolution - 1);
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+        this.leadingZeroCountBase = 64 - subBucketCountMagnitude;
+
+        // Each extra bucket doubles the covered range
+        long trackable = subBucketCount - 1;
+        int bucketCount = 1;
+        while (trackable < highestTrackableUnits) {
+            trackable = (trackable << 1) | 1;
+            bucketCount++;
+        }
+        this.counts = new long[(bucketCount + 1) * subBucketHalfCount];
+    }
+
+    /**
+     * Records one latency in milliseconds. O(1).
+     */
+    public void record(double latencyMs) {
+        long units = (long) (latencyMs * UNITS_PER_MS);
+        if (units < 0) units = 0;
+        if (units > highestTrackableUnits) units = highestTrackableUnits;
+        counts[countsIndex(units)]++;
+        totalCount++;
+        if (latencyMs < minValue) minValue = latencyMs;
+        if (latencyMs > maxValue) maxValue = latencyMs;
+    }
+
+    /**
+     * Adds every count of {@code other} into this histogram.
+     * Both must have been created with the same precision and range.
+     */
+    public void add(LatencyHistogram other) {
+        if (other.counts.length != counts.length || other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException("Histograms have different precision or range");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        minValue = Math.min(minValue, other.minValue);
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    /**
+     * Clears every count so the histogram can be reused without reallocating.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        minValue = Double.POSITIVE_INFINITY;
+        maxValue = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Returns the latency at the given percentile (0–100), using the same rank
+     * rule as an exact sorted-array lookup: the ceil(p/100 · n)-th smallest value.
+     * The answer is the upper edge of that value's sub-bucket, clamped to [min, max].
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0.0;
+        long targetRank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        targetRank = Math.min(targetRank, totalCount);
+
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= targetRank) {
+                double value = highestEquivalentUnits(valueFromIndex(i)) / UNITS_PER_MS;
+                return Math.max(minValue, Math.min(value, maxValue));
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Mean computed from bucket midpoints — accurate to the histogram's precision.
+     */
+    public double getMean() {
+        if (totalCount == 0) return 0.0;
+        double sum = 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) sum += counts[i] * medianEquivalentMs(i);
+        }
+        return sum / totalCount;
+    }
+
+    /**
+     * Population standard deviation from bucket midpoints.
+     */
+    public double getStdDev() {
+        if (totalCount == 0) return 0.0;
+        double mean = getMean();
+        double sumSquares = 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                double d = medianEquivalentMs(i) - mean;
+                sumSquares += counts[i] * d * d;
+            }
+        }
+        return Math.sqrt(sumSquares / totalCount);
+    }
+
+    public long getTotalCount() { return totalCount; }
+    public double getMin() { return totalCount == 0 ? 0.0 : minValue; }
+    public double getMax() { return totalCount == 0 ? 0.0 : maxValue; }
+    public int getSignificantDigits() { return significantDigits; }
+
+    /** Number of counters, i.e. the cost of one percentile query. */
+    public int getBucketCount() { return counts.length; }
+
+    // --- Index arithmetic (HdrHistogram layout, unit magnitude 0) ---
+
+    private int countsIndex(long units) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(units | subBucketMask);
+        int subBucketIndex = (int) (units >>> bucketIndex);
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude) + (subBucketIndex - subBucketHalfCount);
+    }
+
+    private long valueFromIndex(int index) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucketIndex = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount;
+            bucketIndex = 0;
+        }
+        return ((long) subBucketIndex) << bucketIndex;
+    }
+
+    private long equivalentRangeUnits(long units) {
+        int bucketIndex = leadingZeroCountBase - Long.numberOfLeadingZeros(units | subBucketMask);
+        return 1L << bucketIndex;
+    }
+
+    private long highestEquivalentUnits(long units) {
+        return units + equivalentRangeUnits(units) - 1;
+    }
+
+    private double medianEquivalentMs(int index) {
+        long lowest = valueFromIndex(index);
+        return (lowest + (equivalentRangeUnits(lowest) - 1) / 2.0) / UNITS_PER_MS;
+    }
+}
@@ -1,22 +1,56 @@
 package com.loadbalancer.metrics;
 
 import java.util.ArrayList;
-import java.util.DoubleSummaryStatistics;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Collects and computes statistics for a single simulation run.
  *
  * Tracks per-request latencies and provides aggregate metrics:
- *   - Mean, P50, P95, P99 latencies
+ *   - Mean, P50, P95, P99, P99.9 latencies
  *   - Throughput (requests per unit time)
  *   - Regret (cumulative difference from optimal)
+ *
+ * Storage is primitive: the raw series live in fixed-size chunks of double[] and int[]
+ * (12 bytes per request, no boxing, no copy on growth), and the rolling window is a
+ * circular double[] with a running sum, so record() and getRollingAverage() are O(1).
+ *
+ * Count, sum, min, max and a Welford mean/variance accumulator are updated in record(),
+ * so every summary getter is O(1) and exact whether or not raw latencies are retained.
+ *
+ * Percentiles come from a fixed-memory {@link LatencyHistogram} updated in record(),
+ * so a report costs O(bucket count) regardless of run length. Retaining the raw series
+ * is optional; without it memory stays constant and only the per-request accessors
+ * (getLatency, getLatencies, getExactPercentile, …) become unavailable.
+ *
+ * Mergeable {@link TDigest} sketches are kept for latency globally and per server,
+ * so summaries from parallel shards can be combined without shipping raw series.
  */
 public class MetricsCollector {
 
+    private static final int CHUNK_BITS = 16;                 // 65 536 requests per chunk
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
     private final String algorithmName;
-    private final List<Double> latencies;
-    private final List<Integer> serverSelections;
+    private final boolean retainRawLatencies;
+    private final LatencyHistogram histogram;
+    private final TDigest latencyDigest;
+    private TDigest[] serverDigests;               // grown on demand, null until a server is seen
+
+    // Raw series: entry i lives at chunk[i >>> CHUNK_BITS][i & CHUNK_MASK]
+    private double[][] latencyChunks;
+    private int[][]    selectionChunks;
+    private long       size;                       // long: streaming runs may pass 2^31 requests
+    private long[]     selectionCounts;            // per-server totals, grown on demand
+
+    // Running summary statistics (Welford's online algorithm for the variance)
+    private double latencySum;
+    private double minLatency = Double.POSITIVE_INFINITY;
+    private double maxLatency = Double.NEGATIVE_INFINITY;
+    private double runningMean;
+    private double sumSquaredDeviations;           // M2 = Σ (x - mean)²
 
     // Cumulative regret tracking
     private double optimalLatency;     // best achievable latency (set from simulation)
@@ -24,24 +58,73 @@ public class MetricsCollector {
 
     // Moving window for rolling average (window of last N requests)
     private final int windowSize;
-    private final List<Double> rollingWindow;
+    private final double[] rollingWindow;          // circular buffer
+    private int    rollingPosition;                // next slot to overwrite
+    private int    rollingCount;
+    private double rollingSum;
 
     public MetricsCollector(String algorithmName, double optimalLatency, int windowSize) {
+        this(algorithmName, optimalLatency, windowSize, true, LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param retainRawLatencies Keep the per-request series (12 bytes/request) for charting
+     *                           and exact percentiles; false keeps memory constant
+     * @param significantDigits  Precision of the percentile histogram (1–5)
+     */
+    public MetricsCollector(String algorithmName, double optimalLatency, int windowSize,
+                            boolean retainRawLatencies, int significantDigits) {
         this.algorithmName = algorithmName;
-        this.latencies = new ArrayList<>();
-        this.serverSelections = new ArrayList<>();
+        this.retainRawLatencies = retainRawLatencies;
+        this.histogram = new LatencyHistogram(significantDigits, LatencyHistogram.DEFAULT_HIGHEST_TRACKABLE_MS);
+        this.latencyDigest = new TDigest();
+        this.serverDigests = new TDigest[8];
+        this.latencyChunks = new double[retainRawLatencies ? 4 : 0][];
+        this.selectionChunks = new int[retainRawLatencies ? 4 : 0][];
+        this.selectionCounts = new long[8];
         this.optimalLatency = optimalLatency;
         this.cumulativeRegret = 0.0;
         this.windowSize = windowSize;
-        this.rollingWindow = new ArrayList<>();
+        this.rollingWindow = new double[windowSize];
     }
 
     /**
      * Records a completed request's result.
      */
     public void record(int serverIndex, double latency) {
-        latencies.add(latency);
-        serverSelections.add(serverIndex);
+        if (retainRawLatencies) {
+            // The raw series is indexed by int, like the arrays its accessors return
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Raw series full at " + size
+                        + " requests; disable raw retention for longer runs: " + algorithmName);
+            }
+            int index = (int) size;
+            int chunk = index >>> CHUNK_BITS;
+            if ((index & CHUNK_MASK) == 0) {
+                addChunk(chunk);
+            }
+            latencyChunks[chunk][index & CHUNK_MASK] = latency;
+            selectionChunks[chunk][index & CHUNK_MASK] = serverIndex;
+        }
+        size++;
+        histogram.record(latency);
+
+        latencySum += latency;
+        if (latency < minLatency) minLatency = latency;
+        if (latency > maxLatency) maxLatency = latency;
+        double delta = latency - runningMean;
+        runningMean += delta / size;
+        sumSquaredDeviations += delta * (latency - runningMean);
+
+        latencyDigest.add(latency);
+
+        if (serverIndex >= 0) {
+            if (serverIndex >= selectionCounts.length) {
+                selectionCounts = Arrays.copyOf(selectionCounts, Math.max(serverIndex + 1, selectionCounts.length * 2));
+            }
+            selectionCounts[serverIndex]++;
+            serverDigest(serverIndex).add(latency);
+        }
 
         // Regret = difference from optimal latency
         double regret = latency - optimalLatency;
@@ -49,65 +132,125 @@ public class MetricsCollector {
             cumulativeRegret += regret;
         }
 
-        // Update rolling window
-        rollingWindow.add(latency);
-        if (rollingWindow.size() > windowSize) {
-            rollingWindow.remove(0);
+        // Update rolling window: overwrite the oldest slot and adjust the running sum
+        if (windowSize == 0) {
+            return;
+        }
+        if (rollingCount == windowSize) {
+            rollingSum -= rollingWindow[rollingPosition];
+        } else {
+            rollingCount++;
+        }
+        rollingWindow[rollingPosition] = latency;
+        rollingSum += latency;
+        if (++rollingPosition == windowSize) {
+            rollingPosition = 0;
+            // Re-sum once per lap so floating point drift of the running sum stays bounded
+            double exact = 0.0;
+            for (int i = 0; i < rollingCount; i++) exact += rollingWindow[i];
+            rollingSum = exact;
+        }
+    }
+
+    private TDigest serverDigest(int serverIndex) {
+        if (serverIndex >= serverDigests.length) {
+            serverDigests = Arrays.copyOf(serverDigests, Math.max(serverIndex + 1, serverDigests.length * 2));
         }
+        TDigest digest = serverDigests[serverIndex];
+        if (digest == null) {
+            digest = new TDigest();
+            serverDigests[serverIndex] = digest;
+        }
+        return digest;
+    }
+
+    private void addChunk(int chunk) {
+        if (chunk == latencyChunks.length) {
+            latencyChunks = Arrays.copyOf(latencyChunks, chunk * 2);
+            selectionChunks = Arrays.copyOf(selectionChunks, chunk * 2);
+        }
+        latencyChunks[chunk] = new double[CHUNK_SIZE];
+        selectionChunks[chunk] = new int[CHUNK_SIZE];
+    }
+
+    /**
+     * Returns the latency of the i-th recorded request (0-based, in arrival order).
+     */
+    public double getLatency(int index) {
+        requireRawLatencies();
+        return latencyChunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+
+    /**
+     * Returns the server index chosen for the i-th recorded request.
+     */
+    public int getServerSelection(int index) {
+        requireRawLatencies();
+        return selectionChunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
     }
 
     /**
      * Returns average latency over all recorded requests.
      */
     public double getMeanLatency() {
-        return latencies.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return size == 0 ? 0.0 : runningMean;
     }
 
     /**
      * Returns rolling average of the last N requests.
      */
     public double getRollingAverage() {
-        return rollingWindow.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+        return rollingCount == 0 ? 0.0 : rollingSum / rollingCount;
     }
 
     /**
-     * Returns the Nth percentile latency.
+     * Returns the Nth percentile latency from the histogram, O(bucket count).
      * P95 means: 95% of requests completed within this time.
+     * Accurate to the histogram's significant digits.
      */
     public double getPercentile(double percentile) {
-        if (latencies.isEmpty()) return 0.0;
-        List<Double> sorted = new ArrayList<>(latencies);
-        sorted.sort(Double::compareTo);
-        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
-        index = Math.max(0, Math.min(index, sorted.size() - 1));
-        return sorted.get(index);
+        return histogram.getValueAtPercentile(percentile);
+    }
+
+    /**
+     * Returns the exact Nth percentile by sorting a copy of the raw series — O(n log n).
+     * Requires raw latency retention.
+     */
+    public double getExactPercentile(double percentile) {
+        if (size == 0) return 0.0;
+        double[] sorted = getLatencyArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        index = Math.max(0, Math.min(index, sorted.length - 1));
+        return sorted[index];
     }
 
     /**
      * Returns min latency observed.
      */
     public double getMinLatency() {
-        return latencies.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
+        return size == 0 ? 0.0 : minLatency;
     }
 
     /**
      * Returns max latency observed.
      */
     public double getMaxLatency() {
-        return latencies.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
+        return size == 0 ? 0.0 : maxLatency;
     }
 
     /**
      * Returns standard deviation of latencies.
      */
     public double getStdDev() {
-        double mean = getMeanLatency();
-        return Math.sqrt(latencies.stream()
-                .mapToDouble(l -> (l - mean) * (l - mean))
-                .average()
-                .orElse(0.0));
+        return size == 0 ? 0.0 : Math.sqrt(sumSquaredDeviations / size);
     }
 
+    /**
+     * Returns the sum of all recorded latencies.
+     */
+    public double getTotalLatency() { return latencySum; }
+
     /**
      * Returns cumulative regret — total extra latency paid vs. optimal.
      */
@@ -116,49 +259,115 @@ public class MetricsCollector {
     /**
      * Returns total number of requests.
      */
-    public int getTotalRequests() { return latencies.size(); }
+    public long getTotalRequests() { return size; }
 
     /**
      * Returns all recorded latencies (for charting).
+     * Boxes every value — prefer {@link #getLatency(int)} or {@link #getLatencyArray()} on long runs.
      */
-    public List<Double> getLatencies() { return new ArrayList<>(latencies); }
+    public List<Double> getLatencies() {
+        requireRawLatencies();
+        int n = (int) size;                         // retained series never exceed Integer.MAX_VALUE
+        List<Double> copy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) copy.add(getLatency(i));
+        return copy;
+    }
+
+    /**
+     * Returns a primitive copy of all recorded latencies.
+     */
+    public double[] getLatencyArray() {
+        requireRawLatencies();
+        int n = (int) size;
+        double[] copy = new double[n];
+        for (int chunk = 0, copied = 0; copied < n; chunk++) {
+            int length = Math.min(CHUNK_SIZE, n - copied);
+            System.arraycopy(latencyChunks[chunk], 0, copy, copied, length);
+            copied += length;
+        }
+        return copy;
+    }
 
     /**
      * Returns the list of server selections for load distribution analysis.
      */
-    public List<Integer> getServerSelections() { return new ArrayList<>(serverSelections); }
+    public List<Integer> getServerSelections() {
+        requireRawLatencies();
+        int n = (int) size;
+        List<Integer> copy = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) copy.add(getServerSelection(i));
+        return copy;
+    }
+
+    /**
+     * Returns how many requests each server received, for servers 0 .. serverCount-1.
+     */
+    public long[] getSelectionCounts(int serverCount) {
+        return Arrays.copyOf(selectionCounts, serverCount);
+    }
 
     public String getAlgorithmName() { return algorithmName; }
 
+    public boolean isRetainingRawLatencies() { return retainRawLatencies; }
+
+    /**
+     * Returns the streaming latency histogram backing the percentile getters.
+     */
+    public LatencyHistogram getHistogram() { return histogram; }
+
+    /**
+     * Returns the mergeable latency sketch over all requests.
+     */
+    public TDigest getLatencyDigest() { return latencyDigest; }
+
+    /**
+     * Returns the mergeable latency sketch for one server (empty if it never served a request).
+     */
+    public TDigest getServerLatencyDigest(int serverIndex) {
+        if (serverIndex < serverDigests.length && serverDigests[serverIndex] != null) {
+            return serverDigests[serverIndex];
+        }
+        return new TDigest();
+    }
+
+    /**
+     * Combines the global latency sketches of several collectors (e.g. simulation shards).
+     */
+    public static TDigest mergeLatencyDigests(List<MetricsCollector> collectors) {
+        List<TDigest> digests = new ArrayList<>(collectors.size());
+        for (MetricsCollector collector : collectors) digests.add(collector.latencyDigest);
+        return TDigest.merge(digests);
+    }
+
+    private void requireRawLatencies() {
+        if (!retainRawLatencies) {
+            throw new IllegalStateException("Raw latencies are not retained by collector: " + algorithmName);
+        }
+    }
+
     /**
      * Prints a formatted summary report to stdout.
      */
     public void printSummary(int serverCount) {
-        DoubleSummaryStatistics stats = latencies.stream()
-                .mapToDouble(Double::doubleValue)
-                .summaryStatistics();
-
         System.out.println("\n" + "=".repeat(60));
         System.out.printf("  ALGORITHM: %s%n", algorithmName);
         System.out.println("=".repeat(60));
-        System.out.printf("  Total Requests  : %d%n", stats.getCount());
-        System.out.printf("  Mean Latency    : %.2f ms%n", stats.getAverage());
-        System.out.printf("  Min Latency     : %.2f ms%n", stats.getMin());
-        System.out.printf("  Max Latency     : %.2f ms%n", stats.getMax());
+        System.out.printf("  Total Requests  : %d%n", size);
+        System.out.printf("  Mean Latency    : %.2f ms%n", getMeanLatency());
+        System.out.printf("  Min Latency     : %.2f ms%n", getMinLatency());
+        System.out.printf("  Max Latency     : %.2f ms%n", getMaxLatency());
         System.out.printf("  Std Dev         : %.2f ms%n", getStdDev());
         System.out.printf("  P50 (Median)    : %.2f ms%n", getPercentile(50));
         System.out.printf("  P95             : %.2f ms%n", getPercentile(95));
         System.out.printf("  P99             : %.2f ms%n", getPercentile(99));
+        System.out.printf("  P99.9           : %.2f ms%n", getPercentile(99.9));
         System.out.printf("  Cumulative Regret: %.2f ms%n", cumulativeRegret);
 
         // Server load distribution
-        int[] counts = new int[serverCount];
-        for (int s : serverSelections) {
-            if (s >= 0 && s < serverCount) counts[s]++;
-        }
+        long[] counts = getSelectionCounts(serverCount);
         System.out.println("\n  Server Selection Distribution:");
         for (int i = 0; i < serverCount; i++) {
-            double pct = 100.0 * counts[i] / latencies.size();
+            double pct = 100.0 * counts[i] / size;
             System.out.printf("    Server-%d: %5d requests (%5.1f%%)%n", i, counts[i], pct);
         }
         System.out.println("=".repeat(60));
@@ -0,0 +1,16 @@
+package com.loadbalancer.model;
+
+/**
+ * How a {@link ServerQueue} shares its workers among the requests it holds.
+ */
+public enum QueueDiscipline {
+
+    /** Every request is served immediately; latency equals service time (M/G/∞). */
+    INFINITE_SERVER,
+
+    /** c workers, requests wait in arrival order for the first free one (M/G/c FCFS). */
+    FIFO,
+
+    /** All requests progress at once, each at rate min(1, c/n) (M/G/1-PS for c = 1). */
+    PROCESSOR_SHARING
+}
@@ -27,13 +27,20 @@ public class Server {
     private double totalLatency;
 
     public Server(int id, double baseLatency, double noiseFactor, double driftRate, double driftAmplitude) {
+        this(id, baseLatency, noiseFactor, driftRate, driftAmplitude, id * 42L); // reproducible randomness per server
+    }
+
+    /**
+     * @param seed Seed of this server's noise, for independent replications
+     */
+    public Server(int id, double baseLatency, double noiseFactor, double driftRate, double driftAmplitude, long seed) {
         this.id = id;
         this.name = "Server-" + id;
         this.baseLatency = baseLatency;
         this.noiseFactor = noiseFactor;
         this.driftRate = driftRate;
         this.driftAmplitude = driftAmplitude;
-        this.random = new Random(id * 42L); // reproducible randomness per server
+        this.random = new Random(seed);
         this.tickCount = 0;
         this.totalRequests = 0;
         this.totalLatency = 0.0;
@@ -68,6 +75,21 @@ public class Server {
         return latency;
     }
 
+    /**
+     * Draws an exponentially distributed service time whose mean is the current
+     * base latency plus drift, for M/M/c queueing models. Counts as one request.
+     */
+    public double sampleExponentialServiceTime() {
+        tickCount++;
+        double mean = Math.max(1.0, baseLatency + driftAmplitude * Math.sin(driftRate * tickCount));
+        double serviceTime = -mean * Math.log(1.0 - random.nextDouble());
+
+        totalRequests++;
+        totalLatency += serviceTime;
+
+        return serviceTime;
+    }
+
     /**
      * Simulates a "degradation event" (e.g., GC pause, hot restart).
      * Temporarily increases baseLatency.
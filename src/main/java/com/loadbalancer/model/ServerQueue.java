@@ -0,0 +1,180 @@
+package com.loadbalancer.model;
+
+import java.util.Arrays;
+
+/**
+ * Queueing front-end for a {@link Server}: a fixed number of workers plus a FIFO or
+ * processor-sharing queue, so latency = waiting + service and grows with load.
+ * Herding traffic onto a "fast" server makes it slow.
+ *
+ * Requests in the system are kept in a primitive min-heap keyed by a departure tag:
+ *
+ *   FIFO               — the real completion time, fixed at arrival: the request starts
+ *                        on the worker that frees up first and runs for its service time.
+ *   PROCESSOR_SHARING  — a finish tag in "attained service" units. Every request in the
+ *                        system receives service at rate min(1, c/n), so the head of the
+ *                        heap always departs first, and the real departure time is
+ *                        recomputed whenever n changes.
+ *
+ * Because the next departure can move when a request arrives, callers that schedule it
+ * in an event queue should tag the event with {@link #getVersion()} and drop events
+ * whose version is no longer current. Times are virtual milliseconds.
+ */
+public class ServerQueue {
+
+    private final Server server;
+    private final int workers;
+    private final QueueDiscipline discipline;
+
+    private final double[] workerFreeAt;        // FIFO: when each worker becomes idle
+
+    // Requests in the system, min-heap on departure tag
+    private double[] tags;
+    private double[] arrivalTimes;
+    private int size;
+
+    // Processor sharing: service attained by every resident request since t = 0
+    private double attainedService;
+    private double lastUpdate;
+
+    private int version;
+
+    /**
+     * @param server     Supplies service times and identity
+     * @param workers    Number of requests served in parallel (c ≥ 1)
+     * @param discipline FIFO or PROCESSOR_SHARING
+     */
+    public ServerQueue(Server server, int workers, QueueDiscipline discipline) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be at least 1, got: " + workers);
+        }
+        if (discipline == QueueDiscipline.INFINITE_SERVER) {
+            throw new IllegalArgumentException("INFINITE_SERVER needs no queue");
+        }
+        this.server = server;
+        this.workers = workers;
+        this.discipline = discipline;
+        this.workerFreeAt = new double[discipline == QueueDiscipline.FIFO ? workers : 0];
+        this.tags = new double[16];
+        this.arrivalTimes = new double[16];
+    }
+
+    /**
+     * Admits a request that needs {@code serviceTime} ms of work at virtual time {@code now}
+     * and bumps the version. Returns the new next departure time.
+     */
+    public double arrive(double now, double serviceTime) {
+        double tag;
+        if (discipline == QueueDiscipline.FIFO) {
+            int worker = 0;
+            for (int i = 1; i < workers; i++) {
+                if (workerFreeAt[i] < workerFreeAt[worker]) worker = i;
+            }
+            double finish = Math.max(now, workerFreeAt[worker]) + serviceTime;
+            workerFreeAt[worker] = finish;
+            tag = finish;
+        } else {
+            advance(now);
+            tag = attainedService + serviceTime;
+        }
+        push(tag, now);
+        version++;
+        return nextDepartureTime();
+    }
+
+    /**
+     * Removes the request departing at {@code now} (the current next departure),
+     * bumps the version and returns that request's latency — waiting plus service.
+     */
+    public double depart(double now) {
+        if (size == 0) {
+            throw new IllegalStateException("No request in " + server.getName());
+        }
+        if (discipline == QueueDiscipline.PROCESSOR_SHARING) {
+            advance(now);
+        }
+        double arrivalTime = arrivalTimes[0];
+        pop();
+        version++;
+        return now - arrivalTime;
+    }
+
+    /**
+     * Virtual time of the next departure, or +∞ when the server is idle.
+     */
+    public double nextDepartureTime() {
+        if (size == 0) return Double.POSITIVE_INFINITY;
+        if (discipline == QueueDiscipline.FIFO) return tags[0];
+        return lastUpdate + Math.max(0.0, tags[0] - attainedService) / serviceRate();
+    }
+
+    private void advance(double now) {
+        if (size > 0) {
+            attainedService += (now - lastUpdate) * serviceRate();
+        }
+        lastUpdate = now;
+    }
+
+    private double serviceRate() {
+        return Math.min(1.0, (double) workers / size);
+    }
+
+    /** Requests currently waiting or in service. */
+    public int getInFlight() { return size; }
+
+    /** Changes on every arrival and departure; stale departure events carry an old value. */
+    public int getVersion() { return version; }
+
+    public Server getServer() { return server; }
+    public int getWorkers() { return workers; }
+    public QueueDiscipline getDiscipline() { return discipline; }
+
+    /**
+     * Empties the queue and rewinds its clocks.
+     */
+    public void reset() {
+        Arrays.fill(workerFreeAt, 0.0);
+        size = 0;
+        attainedService = 0.0;
+        lastUpdate = 0.0;
+        version = 0;
+    }
+
+    // --- Binary heap on (tag, arrivalTime) ---
+
+    private void push(double tag, double arrivalTime) {
+        if (size == tags.length) {
+            tags = Arrays.copyOf(tags, size * 2);
+            arrivalTimes = Arrays.copyOf(arrivalTimes, size * 2);
+        }
+        int hole = size++;
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if (tags[parent] <= tag) break;
+            tags[hole] = tags[parent];
+            arrivalTimes[hole] = arrivalTimes[parent];
+            hole = parent;
+        }
+        tags[hole] = tag;
+        arrivalTimes[hole] = arrivalTime;
+    }
+
+    private void pop() {
+        int last = --size;
+        if (last == 0) return;
+        double tag = tags[last];
+        double arrivalTime = arrivalTimes[last];
+        int hole = 0;
+        int half = last >>> 1;
+        while (hole < half) {
+            int child = 2 * hole + 1;
+            if (child + 1 < last && tags[child + 1] < tags[child]) child++;
+            if (tags[child] >= tag) break;
+            tags[hole] = tags[child];
+            arrivalTimes[hole] = arrivalTimes[child];
+            hole = child;
+        }
+        tags[hole] = tag;
+        arrivalTimes[hole] = arrivalTime;
+    }
+}
@@ -0,0 +1,35 @@
+package com.loadbalancer.simulation;
+
+import java.util.Random;
+
+/**
+ * Open-loop request arrival process for {@link EventDrivenSimulation}.
+ *
+ * Arrivals are generated independently of how fast the cluster answers, so a slow
+ * server accumulates in-flight requests instead of throttling the client.
+ * Times are virtual milliseconds.
+ */
+public interface ArrivalProcess {
+
+    /**
+     * Returns the virtual time of the next arrival after {@code now}.
+     */
+    double nextArrivalTime(double now, Random random);
+
+    /**
+     * Long-run average arrival rate in requests per virtual millisecond.
+     */
+    double getMeanRate();
+
+    /**
+     * Clears any internal phase so a new run starts from the same state.
+     */
+    default void reset() {}
+
+    /**
+     * Draws an exponential inter-arrival gap with the given rate (per ms).
+     */
+    static double exponential(Random random, double rate) {
+        return -Math.log(1.0 - random.nextDouble()) / rate;
+    }
+}
@@ -0,0 +1,69 @@
+package com.loadbalancer.simulation;
+
+import java.util.Random;
+
+/**
+ * Bursty arrivals from a two-state Markov-modulated Poisson process (MMPP-2).
+ *
+ * The process alternates between a calm and a burst phase with exponentially
+ * distributed durations; within a phase, arrivals are Poisson at that phase's rate.
+ * Because both the gaps and the phase durations are memoryless, a gap that would
+ * cross a phase boundary is simply redrawn from the boundary at the new rate.
+ */
+public class BurstyArrivalProcess implements ArrivalProcess {
+
+    private final double[] ratePerMs = new double[2];          // [calm, burst]
+    private final double[] meanPhaseMs = new double[2];
+
+    private int    phase;
+    private double phaseEnd = Double.NaN;                      // drawn lazily on first use
+
+    /**
+     * @param calmRequestsPerSecond  Arrival rate outside bursts
+     * @param burstRequestsPerSecond Arrival rate during bursts
+     * @param meanCalmMs             Mean duration of a calm phase (virtual ms)
+     * @param meanBurstMs            Mean duration of a burst (virtual ms)
+     */
+    public BurstyArrivalProcess(double calmRequestsPerSecond, double burstRequestsPerSecond,
+                                double meanCalmMs, double meanBurstMs) {
+        if (calmRequestsPerSecond <= 0 || burstRequestsPerSecond <= 0 || meanCalmMs <= 0 || meanBurstMs <= 0) {
+            throw new IllegalArgumentException("Rates and phase durations must be positive");
+        }
+        this.ratePerMs[0] = calmRequestsPerSecond / 1000.0;
+        this.ratePerMs[1] = burstRequestsPerSecond / 1000.0;
+        this.meanPhaseMs[0] = meanCalmMs;
+        this.meanPhaseMs[1] = meanBurstMs;
+    }
+
+    @Override
+    public double nextArrivalTime(double now, Random random) {
+        if (Double.isNaN(phaseEnd)) {
+            phaseEnd = now + ArrivalProcess.exponential(random, 1.0 / meanPhaseMs[phase]);
+        }
+        double t = now;
+        while (true) {
+            double candidate = t + ArrivalProcess.exponential(random, ratePerMs[phase]);
+            if (candidate < phaseEnd) {
+                return candidate;
+            }
+            t = phaseEnd;
+            phase ^= 1;
+            phaseEnd = t + ArrivalProcess.exponential(random, 1.0 / meanPhaseMs[phase]);
+        }
+    }
+
+    @Override
+    public double getMeanRate() {
+        return (ratePerMs[0] * meanPhaseMs[0] + ratePerMs[1] * meanPhaseMs[1])
+                / (meanPhaseMs[0] + meanPhaseMs[1]);
+    }
+
+    @Override
+    public void reset() {
+        phase = 0;
+        phaseEnd = Double.NaN;
+    }
+
+    /** Returns true while in the burst phase. */
+    public boolean isBursting() { return phase == 1; }
+}
@@ -0,0 +1,123 @@
+package com.loadbalancer.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of request completion events, ordered by virtual time.
+ *
+ * Events are stored column-wise in parallel primitive arrays (time, server, latency,
+ * version — the last tags departures of a queueing server so stale ones can be skipped),
+ * so scheduling an event allocates nothing once the arrays have grown to the peak
+ * number of in-flight requests. add() and poll() are O(log n) and move array slots,
+ * never objects. Ties on time are broken by insertion order, which keeps runs with
+ * identical seeds bit-for-bit reproducible.
+ */
+class CompletionEventQueue {
+
+    private double[] times;
+    private int[]    servers;
+    private double[] latencies;
+    private int[]    versions;
+    private long[]   sequences;     // insertion order, breaks ties deterministically
+    private int      size;
+    private long     nextSequence;
+
+    CompletionEventQueue(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.times = new double[capacity];
+        this.servers = new int[capacity];
+        this.latencies = new double[capacity];
+        this.versions = new int[capacity];
+        this.sequences = new long[capacity];
+    }
+
+    /**
+     * Schedules a completion of a request on {@code server} at virtual time {@code time}.
+     */
+    void add(double time, int server, double latency) {
+        add(time, server, latency, 0);
+    }
+
+    /**
+     * Schedules a departure from a queueing server, tagged with the queue's version.
+     */
+    void add(double time, int server, double latency, int version) {
+        if (size == times.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            servers = Arrays.copyOf(servers, capacity);
+            latencies = Arrays.copyOf(latencies, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+        long sequence = nextSequence++;
+
+        // Sift the hole up from the new leaf, then drop the event into it
+        int hole = size++;
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            if (!before(time, sequence, times[parent], sequences[parent])) break;
+            move(parent, hole);
+            hole = parent;
+        }
+        set(hole, time, server, latency, version, sequence);
+    }
+
+    /**
+     * Removes the earliest event. Read it first with the peek methods.
+     */
+    void poll() {
+        int last = --size;
+        if (last == 0) return;
+        double time = times[last];
+        long sequence = sequences[last];
+
+        // Sift the hole down from the root, then place the former last leaf into it
+        int hole = 0;
+        int half = last >>> 1;
+        while (hole < half) {
+            int child = 2 * hole + 1;
+            int right = child + 1;
+            if (right < last && before(times[right], sequences[right], times[child], sequences[child])) {
+                child = right;
+            }
+            if (!before(times[child], sequences[child], time, sequence)) break;
+            move(child, hole);
+            hole = child;
+        }
+        set(hole, time, servers[last], latencies[last], versions[last], sequence);
+    }
+
+    double peekTime()    { return times[0]; }
+    int    peekServer()  { return servers[0]; }
+    double peekLatency() { return latencies[0]; }
+    int    peekVersion() { return versions[0]; }
+
+    boolean isEmpty() { return size == 0; }
+    int size() { return size; }
+
+    void clear() {
+        size = 0;
+        nextSequence = 0;
+    }
+
+    private static boolean before(double timeA, long sequenceA, double timeB, long sequenceB) {
+        return timeA < timeB || (timeA == timeB && sequenceA < sequenceB);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        servers[to] = servers[from];
+        latencies[to] = latencies[from];
+        versions[to] = versions[from];
+        sequences[to] = sequences[from];
+    }
+
+    private void set(int index, double time, int server, double latency, int version, long sequence) {
+        times[index] = time;
+        servers[index] = server;
+        latencies[index] = latency;
+        versions[index] = version;
+        sequences[index] = sequence;
+    }
+}
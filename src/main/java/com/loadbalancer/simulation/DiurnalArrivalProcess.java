@@ -0,0 +1,58 @@
+package com.loadbalancer.simulation;
+
+import java.util.Random;
+
+/**
+ * Diurnal arrivals: a non-homogeneous Poisson process whose rate follows a sine wave,
+ *
+ *   λ(t) = λ̄ · (1 + amplitude · sin(2π t / period))
+ *
+ * sampled exactly by thinning (Lewis–Shedler): candidates are drawn at the peak rate
+ * λ̄ · (1 + amplitude) and each is kept with probability λ(t) / peak.
+ */
+public class DiurnalArrivalProcess implements ArrivalProcess {
+
+    private final double meanRatePerMs;
+    private final double amplitude;
+    private final double periodMs;
+    private final double peakRatePerMs;
+
+    /**
+     * @param meanRequestsPerSecond Average arrival rate over one period
+     * @param amplitude             Relative swing around the mean (0 ≤ amplitude ≤ 1)
+     * @param periodMs              Length of one "day" in virtual ms
+     */
+    public DiurnalArrivalProcess(double meanRequestsPerSecond, double amplitude, double periodMs) {
+        if (meanRequestsPerSecond <= 0 || periodMs <= 0) {
+            throw new IllegalArgumentException("Rate and period must be positive");
+        }
+        if (amplitude < 0 || amplitude > 1) {
+            throw new IllegalArgumentException("amplitude must be in [0, 1], got: " + amplitude);
+        }
+        this.meanRatePerMs = meanRequestsPerSecond / 1000.0;
+        this.amplitude = amplitude;
+        this.periodMs = periodMs;
+        this.peakRatePerMs = meanRatePerMs * (1.0 + amplitude);
+    }
+
+    @Override
+    public double nextArrivalTime(double now, Random random) {
+        double t = now;
+        while (true) {
+            t += ArrivalProcess.exponential(random, peakRatePerMs);
+            if (random.nextDouble() * peakRatePerMs <= rateAt(t)) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Instantaneous arrival rate (per ms) at virtual time {@code t}.
+     */
+    public double rateAt(double t) {
+        return meanRatePerMs * (1.0 + amplitude * Math.sin(2.0 * Math.PI * t / periodMs));
+    }
+
+    @Override
+    public double getMeanRate() { return meanRatePerMs; }
+}
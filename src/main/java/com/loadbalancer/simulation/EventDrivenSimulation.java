@@ -0,0 +1,253 @@
+package com.loadbalancer.simulation;
+
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.metrics.MetricsCollector;
+import com.loadbalancer.model.QueueDiscipline;
+import com.loadbalancer.model.Server;
+import com.loadbalancer.model.ServerQueue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+/**
+ * Discrete-Event Simulation Engine
+ *
+ * Unlike {@link Simulation}, which runs select → process → update strictly one request
+ * at a time, this engine advances a virtual clock through two kinds of events:
+ *
+ *   arrival    — drawn from an open-loop {@link ArrivalProcess}. The balancer selects a
+ *                server immediately and the request's completion is scheduled at
+ *                now + latency. Many requests can be in flight on one server.
+ *   completion — the balancer only now sees the reward, so feedback is delayed by the
+ *                request's own latency, and metrics are recorded.
+ *
+ * With a FIFO or PROCESSOR_SHARING {@link QueueDiscipline}, each server sits behind a
+ * {@link ServerQueue} with a fixed number of workers: a request's latency is waiting plus
+ * service, so load concentrated on one server makes it slow. Each queue has at most one
+ * live departure event, re-scheduled with a new version whenever its head changes.
+ * The default INFINITE_SERVER discipline serves every request at once, as before.
+ *
+ * Events live in primitive storage: the single pending arrival is one double, and
+ * completions sit in a {@link CompletionEventQueue} (a binary heap of parallel arrays).
+ * No object is allocated per event, so one core processes millions of events per second.
+ *
+ * Runs are reproducible: the same seed gives the same arrivals, degradation targets
+ * and results.
+ */
+public class EventDrivenSimulation {
+
+    private final int serverCount;
+    private final int totalRequests;
+    private final ArrivalProcess arrivalProcess;
+    private final QueueDiscipline discipline;
+    private final int workersPerServer;
+    private final boolean exponentialService;  // M/M/c service times instead of the drift model
+    private final boolean enableDegradationEvents;
+    private final int degradationInterval;     // every N arrivals, inject a degradation
+    private final double optimalLatency;
+    private final long seed;
+
+    private List<Server> servers;
+    private ServerQueue[] queues;                  // null for INFINITE_SERVER
+    private final CompletionEventQueue completions = new CompletionEventQueue(64);
+
+    // Statistics of the most recent run
+    private double now;                            // virtual clock (ms) of the run in progress
+    private double virtualTime;
+    private long   eventCount;
+    private int    peakInFlight;
+
+    public EventDrivenSimulation(int serverCount,
+                                 int totalRequests,
+                                 ArrivalProcess arrivalProcess,
+                                 boolean enableDegradationEvents,
+                                 int degradationInterval,
+                                 long seed) {
+        this(serverCount, totalRequests, arrivalProcess, QueueDiscipline.INFINITE_SERVER, 1, false,
+                enableDegradationEvents, degradationInterval, seed);
+    }
+
+    /**
+     * @param discipline         How each server shares its workers among waiting requests
+     * @param workersPerServer   Requests each server serves in parallel (c)
+     * @param exponentialService Draw exponential service times with the server's current mean
+     *                           (M/M/c) instead of its Gaussian drift model (M/G/c)
+     */
+    public EventDrivenSimulation(int serverCount,
+                                 int totalRequests,
+                                 ArrivalProcess arrivalProcess,
+                                 QueueDiscipline discipline,
+                                 int workersPerServer,
+                                 boolean exponentialService,
+                                 boolean enableDegradationEvents,
+                                 int degradationInterval,
+                                 long seed) {
+        this.serverCount = serverCount;
+        this.totalRequests = totalRequests;
+        this.arrivalProcess = arrivalProcess;
+        this.discipline = discipline;
+        this.workersPerServer = workersPerServer;
+        this.exponentialService = exponentialService;
+        this.enableDegradationEvents = enableDegradationEvents;
+        this.degradationInterval = degradationInterval;
+        this.optimalLatency = 20.0; // approximate best-case latency in our setup
+        this.seed = seed;
+        this.servers = Simulation.createDefaultCluster(serverCount);
+    }
+
+    /**
+     * Runs the simulation with the given load balancer algorithm.
+     *
+     * @param loadBalancer The algorithm to test
+     * @return MetricsCollector with one entry per completed request, in completion order
+     */
+    public MetricsCollector run(LoadBalancer loadBalancer) {
+        // Reset the algorithm and re-create fresh servers for fair comparison
+        loadBalancer.reset();
+        arrivalProcess.reset();
+        servers = Simulation.createDefaultCluster(serverCount);
+        queues = createQueues(servers);
+        completions.clear();
+        Random random = new Random(seed);
+
+        MetricsCollector metrics = new MetricsCollector(
+                loadBalancer.getAlgorithmName(),
+                optimalLatency,
+                100  // rolling window size
+        );
+
+        System.out.printf("%n>>> Running event-driven simulation: %s (%d requests, %d servers, %.0f req/s, %s)%n",
+                loadBalancer.getAlgorithmName(), totalRequests, servers.size(),
+                arrivalProcess.getMeanRate() * 1000.0, discipline);
+
+        long startTime = System.currentTimeMillis();
+
+        int arrived = 0;
+        int completed = 0;
+        int totalInFlight = 0;
+        int progressStep = Math.max(1, totalRequests / 10);
+        now = 0.0;
+        double nextArrival = totalRequests > 0 ? arrivalProcess.nextArrivalTime(now, random) : Double.POSITIVE_INFINITY;
+        peakInFlight = 0;
+
+        while (completed < totalRequests) {
+            if (completions.isEmpty() || nextArrival <= completions.peekTime()) {
+                // ── Arrival: select now, learn later ──
+                now = nextArrival;
+                if (enableDegradationEvents && arrived > 0 && arrived % degradationInterval == 0) {
+                    Simulation.applyDegradationEvent(servers, random.nextInt(servers.size()), arrived,
+                            degradationInterval, true);
+                }
+
+                int selectedIndex = loadBalancer.selectServer(servers);
+                loadBalancer.onRequestStarted(selectedIndex);
+                Server selected = servers.get(selectedIndex);
+                double serviceTime = exponentialService
+                        ? selected.sampleExponentialServiceTime()
+                        : selected.processRequest();
+                if (queues == null) {
+                    completions.add(now + serviceTime, selectedIndex, serviceTime);
+                } else {
+                    ServerQueue queue = queues[selectedIndex];
+                    double departure = queue.arrive(now, serviceTime);
+                    completions.add(departure, selectedIndex, 0.0, queue.getVersion());
+                }
+
+                if (++totalInFlight > peakInFlight) peakInFlight = totalInFlight;
+
+                nextArrival = ++arrived < totalRequests
+                        ? arrivalProcess.nextArrivalTime(now, random)
+                        : Double.POSITIVE_INFINITY;
+            } else {
+                // ── Completion: the reward reaches the balancer only now ──
+                double time = completions.peekTime();
+                int serverIndex = completions.peekServer();
+                double latency = completions.peekLatency();
+                int version = completions.peekVersion();
+                completions.poll();
+
+                if (queues != null && version != queues[serverIndex].getVersion()) {
+                    continue;   // superseded by a later arrival or departure at that server
+                }
+                now = time;
+                if (queues != null) {
+                    ServerQueue queue = queues[serverIndex];
+                    latency = queue.depart(now);
+                    if (queue.getInFlight() > 0) {
+                        completions.add(queue.nextDepartureTime(), serverIndex, 0.0, queue.getVersion());
+                    }
+                }
+
+                totalInFlight--;
+                loadBalancer.onRequestFinished(serverIndex);
+                loadBalancer.updateReward(serverIndex, latency);
+                metrics.record(serverIndex, latency);
+
+                if (++completed % progressStep == 0) {
+                    int progress = (int)(100.0 * completed / totalRequests);
+                    System.out.printf("    [%3d%%] t=%.0f ms, in flight: %d, rolling avg latency: %.2f ms%n",
+                            progress, now, totalInFlight, metrics.getRollingAverage());
+                }
+            }
+        }
+
+        virtualTime = now;
+        eventCount = (long) arrived + completed;
+
+        long elapsed = System.currentTimeMillis() - startTime;
+        System.out.printf("    Simulation complete in %d ms (%d events, %.0f ms virtual time, peak in flight %d)%n",
+                elapsed, eventCount, virtualTime, peakInFlight);
+
+        return metrics;
+    }
+
+    private ServerQueue[] createQueues(List<Server> cluster) {
+        if (discipline == QueueDiscipline.INFINITE_SERVER) {
+            return null;
+        }
+        ServerQueue[] created = new ServerQueue[cluster.size()];
+        for (int i = 0; i < created.length; i++) {
+            created[i] = new ServerQueue(cluster.get(i), workersPerServer, discipline);
+        }
+        return created;
+    }
+
+    /**
+     * Requests waiting or in service at server {@code i} (always 0 without queueing).
+     */
+    public int getInFlight(int serverIndex) {
+        return queues == null ? 0 : queues[serverIndex].getInFlight();
+    }
+
+    /**
+     * A nanosecond clock that reads this simulation's virtual time, for balancers that
+     * decay state over time (e.g. {@link com.loadbalancer.algorithm.PeakEwmaLoadBalancer}).
+     * Between runs it stays at the last run's final time.
+     */
+    public LongSupplier virtualClock() {
+        return () -> (long) (now * 1_000_000.0);
+    }
+
+    /**
+     * Virtual time (ms) at which the last run's final request completed.
+     */
+    public double getVirtualTime() { return virtualTime; }
+
+    /**
+     * Number of arrival and completion events processed in the last run.
+     */
+    public long getEventCount() { return eventCount; }
+
+    /**
+     * Largest number of requests simultaneously in flight during the last run.
+     */
+    public int getPeakInFlight() { return peakInFlight; }
+
+    /**
+     * Returns the servers for external inspection.
+     */
+    public List<Server> getServers() { return servers; }
+
+    public int getServerCount() { return servers.size(); }
+}
@@ -0,0 +1,294 @@
+package com.loadbalancer.simulation;
+
+import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.metrics.MetricsCollector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Hyperparameter Sweep for {@link SoftmaxLoadBalancer}
+ *
+ * Evaluates many (τ₀, τ_min, decay, α) configurations against one {@link Simulation}
+ * and ranks them by mean latency, P99 latency or cumulative regret.
+ *
+ * Configurations come from a full grid, uniform random samples, or a Latin hypercube
+ * (every dimension's range split into n strata, each hit exactly once — better coverage
+ * than random sampling for the same budget). Each {@link ParameterRange} can be linear
+ * or logarithmic, which suits decay rates spanning several orders of magnitude.
+ *
+ * Runs fan out over a ForkJoinPool by recursive halving of the configuration list,
+ * so idle workers steal the remaining halves and uneven run times balance themselves.
+ * Collectors do not retain raw latencies and are dropped as soon as a run is scored:
+ * a sweep keeps one small {@link Result} per configuration, so tens of thousands of
+ * configurations fit in constant memory per worker.
+ */
+public class HyperparameterSweep {
+
+    private final Simulation simulation;
+    private final int parallelism;
+
+    public HyperparameterSweep(Simulation simulation) {
+        this(simulation, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Maximum number of simulations running at once
+     */
+    public HyperparameterSweep(Simulation simulation, int parallelism) {
+        this.simulation = simulation;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    // ─── Search space ─────────────────────────────────────────────────────────
+
+    /**
+     * One point of the search space: the four Softmax constructor hyperparameters.
+     */
+    public static final class Configuration {
+        private final double initialTemperature;
+        private final double minTemperature;
+        private final double temperatureDecayRate;
+        private final double learningRate;
+
+        public Configuration(double initialTemperature, double minTemperature,
+                             double temperatureDecayRate, double learningRate) {
+            this.initialTemperature = initialTemperature;
+            this.minTemperature = minTemperature;
+            this.temperatureDecayRate = temperatureDecayRate;
+            this.learningRate = learningRate;
+        }
+
+        public double getInitialTemperature() { return initialTemperature; }
+        public double getMinTemperature() { return minTemperature; }
+        public double getTemperatureDecayRate() { return temperatureDecayRate; }
+        public double getLearningRate() { return learningRate; }
+
+        SoftmaxLoadBalancer createLoadBalancer(int serverCount) {
+            return new SoftmaxLoadBalancer(serverCount, initialTemperature, minTemperature,
+                    temperatureDecayRate, learningRate);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("τ₀=%.4g τ_min=%.4g decay=%.4g α=%.4g",
+                    initialTemperature, minTemperature, temperatureDecayRate, learningRate);
+        }
+    }
+
+    /**
+     * A closed interval sampled linearly or logarithmically.
+     */
+    public static final class ParameterRange {
+        private final double min;
+        private final double max;
+        private final boolean logarithmic;
+
+        private ParameterRange(double min, double max, boolean logarithmic) {
+            if (max < min) {
+                throw new IllegalArgumentException("max < min: " + max + " < " + min);
+            }
+            if (logarithmic && min <= 0) {
+                throw new IllegalArgumentException("Logarithmic range needs min > 0, got: " + min);
+            }
+            this.min = min;
+            this.max = max;
+            this.logarithmic = logarithmic;
+        }
+
+        public static ParameterRange linear(double min, double max) {
+            return new ParameterRange(min, max, false);
+        }
+
+        public static ParameterRange logarithmic(double min, double max) {
+            return new ParameterRange(min, max, true);
+        }
+
+        /**
+         * Maps u ∈ [0, 1] onto the range.
+         */
+        public double at(double u) {
+            if (logarithmic) {
+                return min * Math.pow(max / min, u);
+            }
+            return min + (max - min) * u;
+        }
+    }
+
+    /**
+     * Every combination of the given values (|τ₀| × |τ_min| × |decay| × |α| configurations).
+     */
+    public static List<Configuration> grid(double[] initialTemperatures, double[] minTemperatures,
+                                           double[] decayRates, double[] learningRates) {
+        List<Configuration> configurations = new ArrayList<>(
+                initialTemperatures.length * minTemperatures.length * decayRates.length * learningRates.length);
+        for (double initialTemperature : initialTemperatures) {
+            for (double minTemperature : minTemperatures) {
+                for (double decayRate : decayRates) {
+                    for (double learningRate : learningRates) {
+                        configurations.add(new Configuration(initialTemperature, minTemperature, decayRate, learningRate));
+                    }
+                }
+            }
+        }
+        return configurations;
+    }
+
+    /**
+     * {@code count} independent uniform samples over the four ranges.
+     */
+    public static List<Configuration> randomSamples(int count, ParameterRange initialTemperature,
+                                                    ParameterRange minTemperature, ParameterRange decayRate,
+                                                    ParameterRange learningRate, long seed) {
+        Random random = new Random(seed);
+        List<Configuration> configurations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configurations.add(new Configuration(
+                    initialTemperature.at(random.nextDouble()),
+                    minTemperature.at(random.nextDouble()),
+                    decayRate.at(random.nextDouble()),
+                    learningRate.at(random.nextDouble())));
+        }
+        return configurations;
+    }
+
+    /**
+     * {@code count} Latin-hypercube samples: along every dimension, each of the
+     * {@code count} equal-probability strata contains exactly one sample.
+     */
+    public static List<Configuration> latinHypercube(int count, ParameterRange initialTemperature,
+                                                     ParameterRange minTemperature, ParameterRange decayRate,
+                                                     ParameterRange learningRate, long seed) {
+        Random random = new Random(seed);
+        ParameterRange[] ranges = {initialTemperature, minTemperature, decayRate, learningRate};
+        double[][] values = new double[ranges.length][count];
+        int[] strata = new int[count];
+        for (int d = 0; d < ranges.length; d++) {
+            for (int i = 0; i < count; i++) strata[i] = i;
+            for (int i = count - 1; i > 0; i--) {         // Fisher–Yates shuffle
+                int j = random.nextInt(i + 1);
+                int tmp = strata[i];
+                strata[i] = strata[j];
+                strata[j] = tmp;
+            }
+            for (int i = 0; i < count; i++) {
+                values[d][i] = ranges[d].at((strata[i] + random.nextDouble()) / count);
+            }
+        }
+
+        List<Configuration> configurations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configurations.add(new Configuration(values[0][i], values[1][i], values[2][i], values[3][i]));
+        }
+        return configurations;
+    }
+
+    // ─── Execution ────────────────────────────────────────────────────────────
+
+    /**
+     * Summary of one configuration's run. Holds no per-request data.
+     */
+    public static final class Result {
+        private final Configuration configuration;
+        private final double meanLatency;
+        private final double p99Latency;
+        private final double cumulativeRegret;
+
+        Result(Configuration configuration, MetricsCollector metrics) {
+            this.configuration = configuration;
+            this.meanLatency = metrics.getMeanLatency();
+            this.p99Latency = metrics.getPercentile(99);
+            this.cumulativeRegret = metrics.getCumulativeRegret();
+        }
+
+        public Configuration getConfiguration() { return configuration; }
+        public double getMeanLatency() { return meanLatency; }
+        public double getP99Latency() { return p99Latency; }
+        public double getCumulativeRegret() { return cumulativeRegret; }
+
+        @Override
+        public String toString() {
+            return String.format("%s  mean=%.2f ms  P99=%.2f ms  regret=%.0f ms",
+                    configuration, meanLatency, p99Latency, cumulativeRegret);
+        }
+    }
+
+    /**
+     * Ranking criteria; every one is "lower is better".
+     */
+    public enum Objective {
+        MEAN_LATENCY(Comparator.comparingDouble(Result::getMeanLatency)),
+        P99_LATENCY(Comparator.comparingDouble(Result::getP99Latency)),
+        CUMULATIVE_REGRET(Comparator.comparingDouble(Result::getCumulativeRegret));
+
+        private final Comparator<Result> comparator;
+
+        Objective(Comparator<Result> comparator) {
+            this.comparator = comparator;
+        }
+
+        public Comparator<Result> comparator() { return comparator; }
+    }
+
+    /**
+     * Simulates every configuration and returns the results in input order.
+     */
+    public List<Result> run(List<Configuration> configurations) {
+        Configuration[] input = configurations.toArray(new Configuration[0]);
+        Result[] results = new Result[input.length];
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, Math.max(1, input.length)));
+        try {
+            pool.invoke(new SweepTask(input, results, 0, input.length));
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Returns the results sorted best-first by the given objective.
+     */
+    public static List<Result> rank(List<Result> results, Objective objective) {
+        List<Result> ranked = new ArrayList<>(results);
+        ranked.sort(objective.comparator());
+        return ranked;
+    }
+
+    /**
+     * Splits [from, to) in half until a single configuration is left, then simulates it.
+     */
+    private final class SweepTask extends RecursiveAction {
+        private final Configuration[] configurations;
+        private final Result[] results;
+        private final int from;
+        private final int to;
+
+        SweepTask(Configuration[] configurations, Result[] results, int from, int to) {
+            this.configurations = configurations;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    Configuration configuration = configurations[from];
+                    MetricsCollector metrics = simulation.run(
+                            configuration.createLoadBalancer(simulation.getServerCount()), false, false);
+                    results[from] = new Result(configuration, metrics);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(configurations, results, from, middle),
+                      new SweepTask(configurations, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.loadbalancer.simulation;
+
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.metrics.MetricsCollector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongFunction;
+
+/**
+ * Multi-Seed Monte Carlo Runner
+ *
+ * A single {@link Simulation#run} is one sample path: servers, degradation events and the
+ * algorithm's own draws are all hard-seeded. This runner executes R independent
+ * replications per algorithm and reports each metric as mean ± a Student-t confidence
+ * interval over replications.
+ *
+ * Seeds come from one master {@link SplittableRandom}: every replication splits off its
+ * own stream, which yields the server noise seeds, the degradation-event seed and one seed
+ * per algorithm. All algorithms in a replication see the same cluster and events (common
+ * random numbers), which sharpens the comparison. Seeds are drawn up front, so results do
+ * not depend on thread scheduling or parallelism.
+ *
+ * Replications run in rounds of {@code minReplications} on a ForkJoinPool. After each round,
+ * every pair of algorithms gets a confidence interval on the mean of its per-replication
+ * differences in the stopping metric. Pairing keeps the benefit of the common random
+ * numbers: cluster-to-cluster variation cancels out of each difference. The run stops as
+ * soon as every difference interval excludes zero (the ranking is resolved) or
+ * {@code maxReplications} is reached. Because the intervals are checked after every round
+ * and for every pair, each one is built at the Bonferroni level
+ * 1 - (1 - confidenceLevel) / (planned rounds × pairs), so the chance of any false
+ * separation over the whole run stays below 1 - confidenceLevel.
+ */
+public class MonteCarloRunner {
+
+    /**
+     * Per-replication quantities that get a confidence interval.
+     */
+    public enum Metric { MEAN_LATENCY, P99_LATENCY, CUMULATIVE_REGRET }
+
+    private final Simulation simulation;
+    private final long masterSeed;
+    private final int minReplications;
+    private final int maxReplications;
+    private final double confidenceLevel;
+    private final Metric stoppingMetric;
+    private final int parallelism;
+
+    public MonteCarloRunner(Simulation simulation, long masterSeed, int minReplications, int maxReplications) {
+        this(simulation, masterSeed, minReplications, maxReplications, 0.95, Metric.MEAN_LATENCY,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param minReplications Replications per round (at least 2, so a variance exists)
+     * @param maxReplications Upper bound on replications per algorithm
+     * @param confidenceLevel Two-sided interval coverage, e.g. 0.95; the stopping rule's
+     *                        difference intervals are widened from it as described above
+     * @param stoppingMetric  Metric whose pairwise differences must separate for an early stop
+     * @param parallelism     Maximum number of simulations running at once
+     */
+    public MonteCarloRunner(Simulation simulation, long masterSeed, int minReplications, int maxReplications,
+                            double confidenceLevel, Metric stoppingMetric, int parallelism) {
+        if (minReplications < 2 || maxReplications < minReplications) {
+            throw new IllegalArgumentException("Need 2 ≤ minReplications ≤ maxReplications, got: "
+                    + minReplications + ", " + maxReplications);
+        }
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new IllegalArgumentException("confidenceLevel must be in (0, 1), got: " + confidenceLevel);
+        }
+        this.simulation = simulation;
+        this.masterSeed = masterSeed;
+        this.minReplications = minReplications;
+        this.maxReplications = maxReplications;
+        this.confidenceLevel = confidenceLevel;
+        this.stoppingMetric = stoppingMetric;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Replicates every algorithm until the stopping metric's paired differences separate.
+     *
+     * @param algorithms Display name → factory creating a fresh instance from a seed
+     */
+    public Report run(Map<String, LongFunction<? extends LoadBalancer>> algorithms) {
+        List<String> names = new ArrayList<>(algorithms.keySet());
+        List<LongFunction<? extends LoadBalancer>> factories = new ArrayList<>(algorithms.values());
+        int algorithmCount = names.size();
+
+        // Draw every replication's seeds up front, independent of execution order
+        SplittableRandom root = new SplittableRandom(masterSeed);
+        long[] eventSeeds = new long[maxReplications];
+        long[] serverSeeds = new long[maxReplications];
+        long[][] algorithmSeeds = new long[maxReplications][algorithmCount];
+        for (int r = 0; r < maxReplications; r++) {
+            SplittableRandom replication = root.split();
+            eventSeeds[r] = replication.nextLong();
+            serverSeeds[r] = replication.nextLong();
+            for (int a = 0; a < algorithmCount; a++) {
+                algorithmSeeds[r][a] = replication.nextLong();
+            }
+        }
+
+        Metric[] metrics = Metric.values();
+        double[][][] samples = new double[metrics.length][algorithmCount][maxReplications];
+        int completed = 0;
+        boolean separated = false;
+        Estimate[][] differences = new Estimate[algorithmCount][algorithmCount];
+
+        // Bonferroni over every check the run may make: each round tests each pair once
+        int plannedRounds = (maxReplications + minReplications - 1) / minReplications;
+        int pairs = algorithmCount * (algorithmCount - 1) / 2;
+        double comparisonLevel = 1.0 - (1.0 - confidenceLevel) / ((double) plannedRounds * Math.max(1, pairs));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (completed < maxReplications && !separated) {
+                int roundEnd = Math.min(maxReplications, completed + minReplications);
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int r = completed; r < roundEnd; r++) {
+                    for (int a = 0; a < algorithmCount; a++) {
+                        int replication = r;
+                        int algorithm = a;
+                        tasks.add(pool.submit(() -> {
+                            LoadBalancer loadBalancer = factories.get(algorithm).apply(algorithmSeeds[replication][algorithm]);
+                            MetricsCollector result = simulation.run(loadBalancer, false, false,
+                                    eventSeeds[replication], new SplittableRandom(serverSeeds[replication]));
+                            samples[Metric.MEAN_LATENCY.ordinal()][algorithm][replication] = result.getMeanLatency();
+                            samples[Metric.P99_LATENCY.ordinal()][algorithm][replication] = result.getPercentile(99);
+                            samples[Metric.CUMULATIVE_REGRET.ordinal()][algorithm][replication] = result.getCumulativeRegret();
+                        }));
+                    }
+                }
+                for (ForkJoinTask<?> task : tasks) {
+                    task.join();
+                }
+                completed = roundEnd;
+
+                separated = pairs > 0;
+                double[][] stopping = samples[stoppingMetric.ordinal()];
+                double[] difference = new double[completed];
+                for (int i = 0; i < algorithmCount; i++) {
+                    for (int j = i + 1; j < algorithmCount; j++) {
+                        for (int r = 0; r < completed; r++) {
+                            difference[r] = stopping[i][r] - stopping[j][r];
+                        }
+                        Estimate estimate = estimate(difference, completed, comparisonLevel);
+                        differences[i][j] = estimate;
+                        differences[j][i] = new Estimate(-estimate.getMean(), estimate.getHalfWidth());
+                        separated &= estimate.getLower() > 0 || estimate.getUpper() < 0;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Summary> summaries = new ArrayList<>(algorithmCount);
+        for (int a = 0; a < algorithmCount; a++) {
+            Estimate[] estimates = new Estimate[metrics.length];
+            for (Metric metric : metrics) {
+                estimates[metric.ordinal()] = estimate(samples[metric.ordinal()][a], completed, confidenceLevel);
+            }
+            summaries.add(new Summary(names.get(a), estimates));
+        }
+        return new Report(summaries, differences, completed, separated, confidenceLevel,
+                comparisonLevel, stoppingMetric);
+    }
+
+    private static Estimate estimate(double[] values, int n, double level) {
+        double mean = 0.0;
+        double sumSquaredDeviations = 0.0;
+        for (int i = 0; i < n; i++) {              // Welford
+            double delta = values[i] - mean;
+            mean += delta / (i + 1);
+            sumSquaredDeviations += delta * (values[i] - mean);
+        }
+        double standardError = Math.sqrt(sumSquaredDeviations / (n - 1) / n);
+        return new Estimate(mean, studentTQuantile(0.5 + level / 2.0, n - 1) * standardError);
+    }
+
+    /**
+     * Exact Student-t quantile for integer ν. P(|T| ≤ t) is a finite trigonometric series in
+     * θ = atan(t / √ν) (Abramowitz &amp; Stegun 26.7.3–4), increasing in θ ∈ [0, π/2), so θ is
+     * found by bisection to full double precision. Unlike an asymptotic expansion this stays
+     * exact at ν = 1 and in the far tail that the Bonferroni level asks for.
+     */
+    static double studentTQuantile(double p, int degreesOfFreedom) {
+        if (p < 0.5) return -studentTQuantile(1.0 - p, degreesOfFreedom);
+        double target = 2.0 * p - 1.0;
+        double low = 0.0;
+        double high = Math.PI / 2;
+        for (int i = 0; i < 64; i++) {
+            double mid = 0.5 * (low + high);
+            if (centralProbability(mid, degreesOfFreedom) < target) low = mid; else high = mid;
+        }
+        return Math.sqrt(degreesOfFreedom) * Math.tan(0.5 * (low + high));
+    }
+
+    // P(|T| ≤ √ν tan θ) for ν degrees of freedom
+    private static double centralProbability(double theta, int degreesOfFreedom) {
+        double sin = Math.sin(theta);
+        double cos = Math.cos(theta);
+        double cos2 = cos * cos;
+        if (degreesOfFreedom % 2 == 1) {
+            // (2/π) [θ + sin θ (cos θ + 2/3 cos³θ + … + 2·4…(ν-3) / 1·3…(ν-2) cos^(ν-2) θ)]
+            double sum = 0.0;
+            if (degreesOfFreedom > 1) {
+                double term = cos;
+                sum = term;
+                for (int k = 3; k <= degreesOfFreedom - 2; k += 2) {
+                    term *= cos2 * (k - 1) / k;
+                    sum += term;
+                }
+            }
+            return 2.0 / Math.PI * (theta + sin * sum);
+        }
+        // sin θ (1 + 1/2 cos²θ + … + 1·3…(ν-3) / 2·4…(ν-2) cos^(ν-2) θ)
+        double term = 1.0;
+        double sum = 1.0;
+        for (int k = 2; k <= degreesOfFreedom - 2; k += 2) {
+            term *= cos2 * (k - 1) / k;
+            sum += term;
+        }
+        return sin * sum;
+    }
+
+    // ─── Results ──────────────────────────────────────────────────────────────
+
+    /**
+     * A sample mean with the half-width of its confidence interval.
+     */
+    public static final class Estimate {
+        private final double mean;
+        private final double halfWidth;
+
+        Estimate(double mean, double halfWidth) {
+            this.mean = mean;
+            this.halfWidth = halfWidth;
+        }
+
+        public double getMean() { return mean; }
+        public double getHalfWidth() { return halfWidth; }
+        public double getLower() { return mean - halfWidth; }
+        public double getUpper() { return mean + halfWidth; }
+
+        public boolean overlaps(Estimate other) {
+            return getLower() <= other.getUpper() && other.getLower() <= getUpper();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.2f ± %.2f", mean, halfWidth);
+        }
+    }
+
+    /**
+     * Interval estimates of every metric for one algorithm.
+     */
+    public static final class Summary {
+        private final String algorithmName;
+        private final Estimate[] estimates;
+
+        Summary(String algorithmName, Estimate[] estimates) {
+            this.algorithmName = algorithmName;
+            this.estimates = estimates;
+        }
+
+        public String getAlgorithmName() { return algorithmName; }
+
+        public Estimate getEstimate(Metric metric) { return estimates[metric.ordinal()]; }
+    }
+
+    /**
+     * Outcome of a replication run, one summary per algorithm in input order.
+     */
+    public static final class Report {
+        private final List<Summary> summaries;
+        private final Estimate[][] differences;
+        private final int replications;
+        private final boolean separated;
+        private final double confidenceLevel;
+        private final double comparisonLevel;
+        private final Metric stoppingMetric;
+
+        Report(List<Summary> summaries, Estimate[][] differences, int replications, boolean separated,
+               double confidenceLevel, double comparisonLevel, Metric stoppingMetric) {
+            this.summaries = List.copyOf(summaries);
+            this.differences = differences;
+            this.replications = replications;
+            this.separated = separated;
+            this.confidenceLevel = confidenceLevel;
+            this.comparisonLevel = comparisonLevel;
+            this.stoppingMetric = stoppingMetric;
+        }
+
+        public List<Summary> getSummaries() { return summaries; }
+
+        /**
+         * Paired difference first − second of the stopping metric (indices in input order),
+         * with its interval at {@link #getComparisonLevel()}.
+         */
+        public Estimate getDifference(int first, int second) { return differences[first][second]; }
+
+        /** Replications run per algorithm. */
+        public int getReplications() { return replications; }
+
+        /** True if every pairwise difference interval of the stopping metric excludes zero. */
+        public boolean isSeparated() { return separated; }
+
+        public double getConfidenceLevel() { return confidenceLevel; }
+
+        /** Bonferroni-corrected coverage of each difference interval. */
+        public double getComparisonLevel() { return comparisonLevel; }
+
+        /**
+         * Prints a formatted comparison table to stdout.
+         */
+        public void print() {
+            System.out.println("\n" + "=".repeat(80));
+            System.out.printf("  MONTE CARLO: %d replications/algorithm, %.0f%% confidence intervals%n",
+                    replications, confidenceLevel * 100);
+            System.out.printf("  %s paired differences (%.2f%% each) %s%n", stoppingMetric, comparisonLevel * 100,
+                    separated ? "all exclude zero" : "still include zero at the replication limit");
+            System.out.println("=".repeat(80));
+            System.out.printf("  %-28s %-16s %-16s %-18s%n", "Algorithm", "Mean (ms)", "P99 (ms)", "Regret (ms)");
+            System.out.println("  " + "-".repeat(78));
+            for (Summary summary : summaries) {
+                System.out.printf("  %-28s %-16s %-16s %-18s%n", summary.getAlgorithmName(),
+                        summary.getEstimate(Metric.MEAN_LATENCY),
+                        summary.getEstimate(Metric.P99_LATENCY),
+                        summary.getEstimate(Metric.CUMULATIVE_REGRET));
+            }
+            System.out.println("=".repeat(80));
+        }
+    }
+}
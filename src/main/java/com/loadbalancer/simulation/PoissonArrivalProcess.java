@@ -0,0 +1,29 @@
+package com.loadbalancer.simulation;
+
+import java.util.Random;
+
+/**
+ * Homogeneous Poisson arrivals: exponential inter-arrival gaps at a constant rate.
+ */
+public class PoissonArrivalProcess implements ArrivalProcess {
+
+    private final double ratePerMs;
+
+    /**
+     * @param requestsPerSecond Mean arrival rate
+     */
+    public PoissonArrivalProcess(double requestsPerSecond) {
+        if (requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestsPerSecond must be positive, got: " + requestsPerSecond);
+        }
+        this.ratePerMs = requestsPerSecond / 1000.0;
+    }
+
+    @Override
+    public double nextArrivalTime(double now, Random random) {
+        return now + ArrivalProcess.exponential(random, ratePerMs);
+    }
+
+    @Override
+    public double getMeanRate() { return ratePerMs; }
+}
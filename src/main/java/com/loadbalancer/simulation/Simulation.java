@@ -1,11 +1,16 @@
 package com.loadbalancer.simulation;
 
 import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.metrics.LatencyHistogram;
 import com.loadbalancer.metrics.MetricsCollector;
 import com.loadbalancer.model.Server;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Simulation Engine
@@ -15,6 +20,11 @@ import java.util.List;
  * 2. Runs N requests through the specified load balancer algorithm
  * 3. Injects degradation/recovery events at configurable intervals
  * 4. Collects and returns metrics for analysis
+ *
+ * Every run builds its own server cluster and seeds its own degradation-event Random,
+ * so runs share no mutable state. {@link #runAll} exploits this to run several algorithms
+ * concurrently on a ForkJoinPool; each result is bit-identical to a sequential run with
+ * the same seed.
  */
 public class Simulation {
 
@@ -24,37 +34,66 @@ public class Simulation {
     private final boolean enableDegradationEvents;
     private final int degradationInterval;     // every N requests, inject a degradation
     private final double optimalLatency;       // theoretical best (for regret calculation)
+    private final long seed;                   // drives degradation-event targets
 
-    // Cluster configuration (can be customized)
-    private List<Server> servers;
+    // Cluster configuration every run starts from (runs mutate their own copies)
+    private final List<Server> servers;
 
     public Simulation(int serverCount,
                       int totalRequests,
                       boolean enableDegradationEvents,
                       int degradationInterval) {
+        this(serverCount, totalRequests, enableDegradationEvents, degradationInterval, 42L);
+    }
+
+    /**
+     * @param seed Seed for degradation-event targets; same seed, same run
+     */
+    public Simulation(int serverCount,
+                      int totalRequests,
+                      boolean enableDegradationEvents,
+                      int degradationInterval,
+                      long seed) {
         this.serverCount = serverCount;
         this.totalRequests = totalRequests;
         this.enableDegradationEvents = enableDegradationEvents;
         this.degradationInterval = degradationInterval;
         this.optimalLatency = 20.0; // approximate best-case latency in our setup
-        this.servers = createDefaultCluster();
+        this.seed = seed;
+        this.servers = createDefaultCluster(serverCount);
     }
 
+    // Diverse cluster: different base latencies and non-stationary drift patterns
+    private static final double[][] DEFAULT_CLUSTER = {
+        //  baseLatency  noise  driftRate  driftAmplitude
+        {     20.0,       5.0,    0.05,      10.0 },   // Fast, stable
+        {     50.0,      10.0,    0.08,      20.0 },   // Medium, moderate drift
+        {     80.0,      15.0,    0.12,      30.0 },   // Slow, high variance
+        {     35.0,       8.0,    0.07,      15.0 },   // Medium-fast
+        {    100.0,      20.0,    0.15,      40.0 },   // Slow, very noisy
+    };
+
     /**
      * Creates a diverse cluster where servers have different base latencies
      * and non-stationary drift patterns to simulate real-world heterogeneity.
      */
-    private List<Server> createDefaultCluster() {
-        List<Server> cluster = new ArrayList<>();
-
-        //          id  baseLatency  noise  driftRate  driftAmplitude
-        cluster.add(new Server(0,  20.0,   5.0,   0.05,   10.0));   // Fast, stable
-        cluster.add(new Server(1,  50.0,  10.0,   0.08,   20.0));   // Medium, moderate drift
-        cluster.add(new Server(2,  80.0,  15.0,   0.12,   30.0));   // Slow, high variance
-        cluster.add(new Server(3,  35.0,   8.0,   0.07,   15.0));   // Medium-fast
-        cluster.add(new Server(4, 100.0,  20.0,   0.15,   40.0));   // Slow, very noisy
+    static List<Server> createDefaultCluster(int serverCount) {
+        return createDefaultCluster(serverCount, null);
+    }
 
-        return cluster.subList(0, Math.min(serverCount, cluster.size()));
+    /**
+     * @param seeds Supplies one noise seed per server; null keeps each server's fixed default
+     */
+    static List<Server> createDefaultCluster(int serverCount, SplittableRandom seeds) {
+        int count = Math.min(serverCount, DEFAULT_CLUSTER.length);
+        List<Server> cluster = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            double[] p = DEFAULT_CLUSTER[id];
+            cluster.add(seeds == null
+                    ? new Server(id, p[0], p[1], p[2], p[3])
+                    : new Server(id, p[0], p[1], p[2], p[3], seeds.nextLong()));
+        }
+        return cluster;
     }
 
     /**
@@ -64,34 +103,92 @@ public class Simulation {
      * @return MetricsCollector containing all recorded results
      */
     public MetricsCollector run(LoadBalancer loadBalancer) {
-        // Reset the algorithm and re-create fresh servers for fair comparison
+        return run(loadBalancer, true);
+    }
+
+    /**
+     * Runs every algorithm concurrently, one fork-join task per algorithm, without
+     * progress output. Results are in input order and identical to calling
+     * {@link #run} on each algorithm in turn. Pass distinct algorithm instances.
+     */
+    public List<MetricsCollector> runAll(List<? extends LoadBalancer> loadBalancers) {
+        return runAll(loadBalancers, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Maximum number of runs executing at once
+     */
+    public List<MetricsCollector> runAll(List<? extends LoadBalancer> loadBalancers, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, loadBalancers.size())));
+        try {
+            List<ForkJoinTask<MetricsCollector>> tasks = new ArrayList<>(loadBalancers.size());
+            for (LoadBalancer loadBalancer : loadBalancers) {
+                tasks.add(pool.submit(() -> run(loadBalancer, false)));
+            }
+            List<MetricsCollector> results = new ArrayList<>(tasks.size());
+            for (ForkJoinTask<MetricsCollector> task : tasks) {
+                results.add(task.join());
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private MetricsCollector run(LoadBalancer loadBalancer, boolean verbose) {
+        return run(loadBalancer, verbose, true);
+    }
+
+    /**
+     * @param retainRawLatencies false keeps the collector's memory constant (summary
+     *                           statistics and percentiles only), for large sweeps
+     */
+    MetricsCollector run(LoadBalancer loadBalancer, boolean verbose, boolean retainRawLatencies) {
+        return run(loadBalancer, verbose, retainRawLatencies, seed, null);
+    }
+
+    /**
+     * @param eventSeed   Seed for degradation-event targets
+     * @param serverSeeds Per-server noise seeds for an independent replication; null for the defaults
+     */
+    MetricsCollector run(LoadBalancer loadBalancer, boolean verbose, boolean retainRawLatencies,
+                         long eventSeed, SplittableRandom serverSeeds) {
+        // Reset the algorithm and create a private cluster for fair, isolated comparison
         loadBalancer.reset();
-        servers = createDefaultCluster();
+        List<Server> servers = createDefaultCluster(serverCount, serverSeeds);
+        Random random = new Random(eventSeed);
 
         MetricsCollector metrics = new MetricsCollector(
                 loadBalancer.getAlgorithmName(),
                 optimalLatency,
-                100  // rolling window size
+                100,  // rolling window size
+                retainRawLatencies,
+                LatencyHistogram.DEFAULT_SIGNIFICANT_DIGITS
         );
 
-        System.out.printf("%n>>> Running simulation: %s (%d requests, %d servers)%n",
-                loadBalancer.getAlgorithmName(), totalRequests, servers.size());
+        if (verbose) {
+            System.out.printf("%n>>> Running simulation: %s (%d requests, %d servers)%n",
+                    loadBalancer.getAlgorithmName(), totalRequests, servers.size());
+        }
 
         long startTime = System.currentTimeMillis();
+        int progressStep = Math.max(1, totalRequests / 10);
 
         for (int reqId = 0; reqId < totalRequests; reqId++) {
 
             // Inject degradation event periodically (simulates real-world incidents)
             if (enableDegradationEvents && reqId > 0 && reqId % degradationInterval == 0) {
-                injectDegradationEvent(reqId);
+                applyDegradationEvent(servers, random.nextInt(servers.size()), reqId, degradationInterval, verbose);
             }
 
             // 1. Select a server
             int selectedIndex = loadBalancer.selectServer(servers);
             Server selectedServer = servers.get(selectedIndex);
+            loadBalancer.onRequestStarted(selectedIndex);
 
             // 2. Process request (observe latency)
             double latency = selectedServer.processRequest();
+            loadBalancer.onRequestFinished(selectedIndex);
 
             // 3. Feed the reward back into the algorithm
             loadBalancer.updateReward(selectedIndex, latency);
@@ -100,26 +197,27 @@ public class Simulation {
             metrics.record(selectedIndex, latency);
 
             // Progress indicator for long simulations
-            if ((reqId + 1) % (totalRequests / 10) == 0) {
+            if (verbose && (reqId + 1) % progressStep == 0) {
                 int progress = (int)(100.0 * (reqId + 1) / totalRequests);
                 System.out.printf("    [%3d%%] Rolling avg latency: %.2f ms%n",
                         progress, metrics.getRollingAverage());
             }
         }
 
-        long elapsed = System.currentTimeMillis() - startTime;
-        System.out.printf("    Simulation complete in %d ms%n", elapsed);
+        if (verbose) {
+            long elapsed = System.currentTimeMillis() - startTime;
+            System.out.printf("    Simulation complete in %d ms%n", elapsed);
+        }
 
         return metrics;
     }
 
     /**
-     * Injects a random degradation or recovery event into the cluster.
-     * This tests how quickly each algorithm adapts.
+     * Injects a degradation or recovery event into the cluster, alternating with each
+     * event number. This tests how quickly each algorithm adapts.
      */
-    private void injectDegradationEvent(int requestId) {
-        // Randomly select a server to degrade or recover
-        int targetIndex = (int)(Math.random() * servers.size());
+    static void applyDegradationEvent(List<Server> servers, int targetIndex, int requestId,
+                                      int degradationInterval, boolean verbose) {
         Server target = servers.get(targetIndex);
 
         // Alternate between degradation and recovery
@@ -127,17 +225,19 @@ public class Simulation {
 
         if (isDegradation) {
             target.simulateDegradation(1.5);
-            System.out.printf("  [Event @ req %d] DEGRADATION: Server-%d latency increased 50%%!%n",
-                    requestId, targetIndex);
         } else {
             target.simulateRecovery(1.5);
-            System.out.printf("  [Event @ req %d] RECOVERY:    Server-%d latency normalized%n",
+        }
+        if (verbose) {
+            System.out.printf(isDegradation
+                            ? "  [Event @ req %d] DEGRADATION: Server-%d latency increased 50%%!%n"
+                            : "  [Event @ req %d] RECOVERY:    Server-%d latency normalized%n",
                     requestId, targetIndex);
         }
     }
 
     /**
-     * Returns the servers for external inspection.
+     * Returns the cluster configuration each run starts from, for external inspection.
      */
     public List<Server> getServers() { return servers; }
 
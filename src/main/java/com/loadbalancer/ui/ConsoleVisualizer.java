@@ -87,19 +87,15 @@ public class ConsoleVisualizer {
         System.out.printf("%n  Server Selection Distribution for [%s]:%n", metrics.getAlgorithmName());
         System.out.println("  " + "─".repeat(CHART_WIDTH + 25));
 
-        List<Integer> selections = metrics.getServerSelections();
-        int[] counts = new int[serverCount];
-        for (int s : selections) {
-            if (s >= 0 && s < serverCount) counts[s]++;
-        }
+        long[] counts = metrics.getSelectionCounts(serverCount);
 
-        int total = selections.size();
-        int maxCount = 0;
-        for (int c : counts) if (c > maxCount) maxCount = c;
+        long total = metrics.getTotalRequests();
+        long maxCount = 0;
+        for (long c : counts) if (c > maxCount) maxCount = c;
 
         for (int i = 0; i < serverCount; i++) {
             double pct = 100.0 * counts[i] / total;
-            int barLength = maxCount == 0 ? 0 : (int)(CHART_WIDTH * counts[i] / maxCount);
+            int barLength = maxCount == 0 ? 0 : (int)((double) CHART_WIDTH * counts[i] / maxCount);
             String bar = BAR_CHAR.repeat(barLength);
             System.out.printf("  Server-%-2d │ %s %5.1f%% (%d)%n", i, bar, pct, counts[i]);
         }
@@ -136,9 +132,8 @@ public class ConsoleVisualizer {
         System.out.println("\n  Latency Trend (time →, normalized to each algorithm's max):");
 
         for (MetricsCollector m : results) {
-            List<Double> latencies = m.getLatencies();
-            int total = latencies.size();
-            if (total == 0) continue;
+            if (m.getTotalRequests() == 0 || !m.isRetainingRawLatencies()) continue;
+            int total = (int) m.getTotalRequests();    // a retained series never exceeds Integer.MAX_VALUE
 
             int bucketSize = Math.max(1, total / buckets);
             double[] bucketAvgs = new double[buckets];
@@ -148,7 +143,7 @@ public class ConsoleVisualizer {
                 int start = b * bucketSize;
                 int end = Math.min(start + bucketSize, total);
                 double sum = 0;
-                for (int i = start; i < end; i++) sum += latencies.get(i);
+                for (int i = start; i < end; i++) sum += m.getLatency(i);
                 bucketAvgs[b] = (end > start) ? sum / (end - start) : 0;
                 if (bucketAvgs[b] > maxBucket) maxBucket = bucketAvgs[b];
             }
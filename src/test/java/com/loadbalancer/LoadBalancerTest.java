@@ -1,18 +1,46 @@
 package com.loadbalancer;
 
+import com.loadbalancer.algorithm.AsyncRewardPipeline;
+import com.loadbalancer.algorithm.ConcurrentSoftmaxLoadBalancer;
 import com.loadbalancer.algorithm.RoundRobinLoadBalancer;
 import com.loadbalancer.algorithm.RandomLoadBalancer;
+import com.loadbalancer.algorithm.SlidingWindowUcbLoadBalancer;
 import com.loadbalancer.algorithm.SoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.SumTreeSoftmaxLoadBalancer;
+import com.loadbalancer.algorithm.ThompsonSamplingLoadBalancer;
+import com.loadbalancer.algorithm.DiscountedUcbLoadBalancer;
+import com.loadbalancer.algorithm.LeastOutstandingLoadBalancer;
+import com.loadbalancer.algorithm.LoadBalancer;
+import com.loadbalancer.algorithm.PeakEwmaLoadBalancer;
+import com.loadbalancer.algorithm.PowerOfTwoChoicesLoadBalancer;
+import com.loadbalancer.model.QueueDiscipline;
 import com.loadbalancer.model.Server;
+import com.loadbalancer.model.ServerQueue;
+import com.loadbalancer.metrics.ConcurrentMetricsCollector;
 import com.loadbalancer.metrics.MetricsCollector;
+import com.loadbalancer.metrics.TDigest;
+import com.loadbalancer.simulation.ArrivalProcess;
+import com.loadbalancer.simulation.BurstyArrivalProcess;
+import com.loadbalancer.simulation.DiurnalArrivalProcess;
+import com.loadbalancer.simulation.EventDrivenSimulation;
+import com.loadbalancer.simulation.HyperparameterSweep;
+import com.loadbalancer.simulation.MonteCarloRunner;
+import com.loadbalancer.simulation.PoissonArrivalProcess;
 import com.loadbalancer.simulation.Simulation;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +55,7 @@ import static org.junit.jupiter.api.Assertions.*;
  *   5. Algorithm comparison (Softmax ≤ Round-Robin mean latency)
  *   6. Round-Robin distribution uniformity
  *   7. Regret tracking
+ *   8. Allocation-free selection hot path
  */
 class LoadBalancerTest {
 
@@ -177,6 +206,362 @@ class LoadBalancerTest {
                 "Q-value should increase (become less negative) after a good (low) latency observation");
     }
 
+    @Test
+    @DisplayName("Cached distribution must be invalidated by a Q-value update")
+    void testCachedDistributionInvalidatedOnUpdate() {
+        SoftmaxLoadBalancer softmax = new SoftmaxLoadBalancer(SERVER_COUNT, 0.01, 0.01, 0.0, 1.0);
+        softmax.setTemperatureTolerance(1.0);
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            softmax.updateReward(i, 200.0);
+        }
+
+        softmax.updateReward(3, 10.0);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(3, softmax.selectServer(servers), "Greedy selection should pick server 3");
+        }
+
+        // A single reward must take effect on the very next selection
+        softmax.updateReward(1, 1.0);
+        assertEquals(1, softmax.selectServer(servers),
+                "Selection should reflect the new best server immediately");
+    }
+
+    @Test
+    @DisplayName("Sum-tree Softmax must match the reference Softmax distribution")
+    void testSumTreeMatchesSoftmax() {
+        SoftmaxLoadBalancer softmax = new SoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 0.3);
+        SumTreeSoftmaxLoadBalancer sumTree = new SumTreeSoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 0.3);
+
+        // Select before every update so the tree takes the incremental O(log n) path
+        for (int i = 0; i < 200; i++) {
+            int s = sumTree.selectServer(servers);
+            double latency = servers.get(s).processRequest();
+            sumTree.updateReward(s, latency);
+            softmax.updateReward(s, latency);
+        }
+
+        double[] expected = softmax.getProbabilities(SERVER_COUNT);
+        double[] actual = sumTree.getProbabilities(SERVER_COUNT);
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            assertEquals(expected[i], actual[i], 1e-9,
+                    "Sum-tree probability for server " + i + " should match Softmax");
+        }
+    }
+
+    @Test
+    @DisplayName("Sum-tree Softmax must replay its seed after reset, and reading probabilities must not perturb it")
+    void testSumTreeSeedAndReadOnlyProbabilities() {
+        SumTreeSoftmaxLoadBalancer observed = new SumTreeSoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.3, 7L);
+        SumTreeSoftmaxLoadBalancer quiet = new SumTreeSoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.3, 7L);
+        // A wide tolerance keeps a stale tree in use, which a rebuilding accessor would refresh
+        observed.setTemperatureTolerance(1.0);
+        quiet.setTemperatureTolerance(1.0);
+
+        int[] firstRun = new int[500];
+        for (int i = 0; i < firstRun.length; i++) {
+            observed.getProbabilities(SERVER_COUNT);
+            int s = observed.selectServer(servers);
+            assertEquals(quiet.selectServer(servers), s, "Selection " + i + " diverged after getProbabilities");
+            double latency = 10.0 * (s + 1);
+            observed.updateReward(s, latency);
+            quiet.updateReward(s, latency);
+            firstRun[i] = s;
+        }
+
+        observed.reset();
+        for (int i = 0; i < firstRun.length; i++) {
+            int s = observed.selectServer(servers);
+            assertEquals(firstRun[i], s, "Selection " + i + " after reset should replay the seed");
+            observed.updateReward(s, 10.0 * (s + 1));
+        }
+    }
+
+    // ─── Sampling Strategy Tests ──────────────────────────────────────────────
+
+    // χ² critical value for 4 degrees of freedom (5 servers) at p = 0.001
+    private static final double CHI_SQUARE_CRITICAL_4DF = 18.467;
+
+    @Test
+    @DisplayName("Alias sampler must reproduce the Softmax distribution")
+    void testAliasSamplerMatchesDistribution() {
+        SoftmaxLoadBalancer alias = new SoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 1.0,
+                SoftmaxLoadBalancer.SamplingStrategy.ALIAS);
+        alias.setAliasRebuildCadence(1, 1_000L);
+        trainFixedLatencies(alias);
+
+        int draws = 100_000;
+        int[] counts = new int[SERVER_COUNT];
+        for (int i = 0; i < draws; i++) {
+            counts[alias.selectServer(servers)]++;
+        }
+
+        double chiSquare = chiSquare(counts, alias.getProbabilities(SERVER_COUNT), draws);
+        assertTrue(chiSquare < CHI_SQUARE_CRITICAL_4DF,
+                "Alias draws should fit the Softmax distribution, χ² = " + chiSquare);
+    }
+
+    @Test
+    @DisplayName("Gumbel-max selection must be statistically equivalent to inverse-CDF sampling")
+    void testGumbelMaxMatchesInverseCdf() {
+        SoftmaxLoadBalancer gumbel = new SoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 1.0,
+                SoftmaxLoadBalancer.SamplingStrategy.GUMBEL_MAX);
+        SoftmaxLoadBalancer inverseCdf = new SoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 1.0,
+                SoftmaxLoadBalancer.SamplingStrategy.INVERSE_CDF);
+        trainFixedLatencies(gumbel);
+        trainFixedLatencies(inverseCdf);
+
+        int draws = 100_000;
+        int[] gumbelCounts = new int[SERVER_COUNT];
+        int[] cdfCounts = new int[SERVER_COUNT];
+        for (int i = 0; i < draws; i++) {
+            gumbelCounts[gumbel.selectServer(servers)]++;
+            cdfCounts[inverseCdf.selectServer(servers)]++;
+        }
+
+        // Goodness of fit against the analytic Softmax probabilities
+        double fit = chiSquare(gumbelCounts, gumbel.getProbabilities(SERVER_COUNT), draws);
+        assertTrue(fit < CHI_SQUARE_CRITICAL_4DF,
+                "Gumbel-max draws should fit the Softmax distribution, χ² = " + fit);
+
+        // Homogeneity: both samplers drew from the same distribution (2×5 table, 4 df)
+        double homogeneity = 0.0;
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            double expected = (gumbelCounts[i] + cdfCounts[i]) / 2.0;
+            homogeneity += (gumbelCounts[i] - expected) * (gumbelCounts[i] - expected) / expected;
+            homogeneity += (cdfCounts[i] - expected) * (cdfCounts[i] - expected) / expected;
+        }
+        assertTrue(homogeneity < CHI_SQUARE_CRITICAL_4DF,
+                "Gumbel-max and inverse-CDF selections should match, χ² = " + homogeneity);
+    }
+
+    private static void trainFixedLatencies(SoftmaxLoadBalancer softmax) {
+        double[] latencies = {20.0, 50.0, 80.0, 35.0, 100.0};
+        for (int i = 0; i < latencies.length; i++) {
+            softmax.updateReward(i, latencies[i]);
+        }
+    }
+
+    private static double chiSquare(int[] observed, double[] probabilities, int total) {
+        double chiSquare = 0.0;
+        for (int i = 0; i < observed.length; i++) {
+            double expected = probabilities[i] * total;
+            chiSquare += (observed[i] - expected) * (observed[i] - expected) / expected;
+        }
+        return chiSquare;
+    }
+
+    // ─── Concurrency Tests ────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Concurrent Softmax must not lose selections or EMA updates across threads")
+    void testConcurrentSoftmaxUnderContention() throws InterruptedException {
+        double alpha = 1e-5;
+        ConcurrentSoftmaxLoadBalancer softmax =
+                new ConcurrentSoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.0, alpha);
+        int threads = 4;
+        int perThread = 10_000;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    softmax.selectServer(servers);
+                    softmax.updateReward(0, 50.0);   // every thread hammers server 0
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) worker.join();
+
+        int sum = 0;
+        for (int c : softmax.getSelectionCounts()) sum += c;
+        assertEquals(threads * perThread, sum, "Every selection should be counted");
+
+        // k identical EMA steps from 0 give Q = r·(1 - (1-α)^k) whatever the interleaving
+        double expected = -0.5 * (1.0 - Math.pow(1.0 - alpha, threads * perThread));
+        assertEquals(expected, softmax.getQValues()[0], 1e-9,
+                "Concurrent EMA updates to one server must all be applied");
+    }
+
+    @Test
+    @DisplayName("Concurrent Softmax must count every step of short-lived threads towards τ-decay")
+    void testConcurrentSoftmaxShortLivedThreads() throws InterruptedException {
+        ConcurrentSoftmaxLoadBalancer softmax =
+                new ConcurrentSoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.1);
+
+        // Like a churning pool: 100 workers that each select a few times and exit
+        for (int t = 0; t < 100; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < 10; i++) softmax.selectServer(servers);
+            });
+            worker.start();
+            worker.join();
+        }
+
+        assertEquals(1.0, softmax.getCurrentTemperature(), 1e-9, "1 000 steps should cool τ from 2.0 to 1.0");
+        int sum = 0;
+        for (int c : softmax.getSelectionCounts()) sum += c;
+        assertEquals(1_000, sum);
+
+        softmax.reset();
+        assertEquals(2.0, softmax.getCurrentTemperature(), 0.0);
+        assertArrayEquals(new int[SERVER_COUNT], softmax.getSelectionCounts());
+    }
+
+    @Test
+    @DisplayName("Async reward pipeline must apply every completion from many producers")
+    void testAsyncRewardPipelineAppliesAllFeedback() throws InterruptedException {
+        double alpha = 1e-5;
+        ConcurrentSoftmaxLoadBalancer learner =
+                new ConcurrentSoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.0, alpha);
+        int threads = 4;
+        int perThread = 10_000;
+
+        try (AsyncRewardPipeline pipeline = new AsyncRewardPipeline(learner, 1 << 16, 256, 1)) {
+            pipeline.start();
+            Thread[] producers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                producers[t] = new Thread(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        pipeline.updateReward(0, 50.0);
+                    }
+                });
+                producers[t].start();
+            }
+            for (Thread producer : producers) producer.join();
+            pipeline.close();
+
+            assertEquals(0, pipeline.getDroppedCount(), "Ring is large enough to never drop");
+            assertEquals(threads * perThread, pipeline.getAppliedCount(), "Every event should be applied");
+            assertEquals(0, pipeline.getQueueDepth(), "Queue should be empty after close");
+        }
+
+        double expected = -0.5 * (1.0 - Math.pow(1.0 - alpha, threads * perThread));
+        assertEquals(expected, learner.getQValues()[0], 1e-9,
+                "Learner should have seen every completion exactly once");
+    }
+
+    @Test
+    @DisplayName("Concurrent metrics shards must merge to exact totals while snapshots run")
+    void testConcurrentMetricsCollectorExactTotals() throws InterruptedException {
+        ConcurrentMetricsCollector metrics = new ConcurrentMetricsCollector("stress", 10.0);
+        int threads = 4;
+        int perThread = 50_000;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    metrics.record(i % SERVER_COUNT, 5 + i % 20);   // integer latencies sum exactly
+                }
+            });
+            workers[t].start();
+        }
+
+        // Snapshots taken mid-run must always be internally consistent
+        while (anyAlive(workers)) {
+            ConcurrentMetricsCollector.Snapshot snapshot = metrics.snapshot();
+            long selected = 0;
+            for (long c : snapshot.getSelectionCounts(SERVER_COUNT)) selected += c;
+            assertEquals(snapshot.getTotalRequests(), selected, "Counts and selections must describe the same requests");
+            assertTrue(snapshot.getTotalLatency() >= 5.0 * snapshot.getTotalRequests());
+        }
+        for (Thread worker : workers) worker.join();
+
+        ConcurrentMetricsCollector.Snapshot snapshot = metrics.snapshot();
+        long perThreadSum = 0, perThreadRegret = 0;
+        for (int i = 0; i < perThread; i++) {
+            perThreadSum += 5 + i % 20;
+            perThreadRegret += Math.max(0, 5 + i % 20 - 10);
+        }
+        assertEquals(threads, metrics.getShardCount());
+        assertEquals((long) threads * perThread, snapshot.getTotalRequests());
+        assertEquals((double) threads * perThreadSum, snapshot.getTotalLatency(), 0.0);
+        assertEquals((double) threads * perThreadRegret, snapshot.getCumulativeRegret(), 0.0);
+        assertEquals(5.0, snapshot.getMinLatency(), 0.0);
+        assertEquals(24.0, snapshot.getMaxLatency(), 0.0);
+        assertEquals(14.5, snapshot.getMeanLatency(), 1e-9);
+        assertEquals(24.0, snapshot.getPercentile(100), 0.0);
+        for (long c : snapshot.getSelectionCounts(SERVER_COUNT)) {
+            assertEquals((long) threads * perThread / SERVER_COUNT, c);
+        }
+    }
+
+    private static boolean anyAlive(Thread[] threads) {
+        for (Thread thread : threads) {
+            if (thread.isAlive()) return true;
+        }
+        return false;
+    }
+
+    // ─── Allocation Tests ─────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Softmax selectServer must not allocate in steady state")
+    void testSelectServerAllocationFree() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SoftmaxLoadBalancer softmax = new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.0001, 0.15);
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            softmax.updateReward(i, 20.0 * (i + 1));
+        }
+
+        // Warm up so the measured loop runs JIT-compiled code
+        int sink = 0;
+        for (int i = 0; i < 200_000; i++) {
+            sink += softmax.selectServer(servers);
+        }
+
+        // Any per-call allocation costs ≥ 16 bytes × 1 000 000 calls in every window, while a
+        // one-off runtime allocation (a deoptimization, a class load) lands in one window only:
+        // keep the cleanest of a few windows and hold it to the strict bound
+        int calls = 1_000_000;
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < 5 && allocated > 0; window++) {
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                sink += softmax.selectServer(servers);
+            }
+            long after = threadBean.getCurrentThreadAllocatedBytes();
+            long overhead = threadBean.getCurrentThreadAllocatedBytes() - after;
+            allocated = Math.min(allocated, after - before - overhead);
+        }
+
+        assertTrue(sink >= 0);
+        assertTrue(allocated < 1_024,
+                "selectServer should allocate zero bytes per call, measured " + allocated + " bytes in total");
+    }
+
+    @Test
+    @DisplayName("Streaming MetricsCollector.record must not allocate in steady state")
+    void testStreamingRecordAllocationFree() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        MetricsCollector metrics = new MetricsCollector("streaming", 20.0, 100, false, 3);
+
+        // Warm up: JIT, and the t-digests' arrays grow to their steady-state size
+        for (int i = 0; i < 200_000; i++) {
+            metrics.record(i % SERVER_COUNT, 10.0 + (i % 97));
+        }
+
+        // Same windowed bound as the selectServer test; a compress() that allocated its
+        // centroid arrays would cost tens of MB per window
+        int calls = 1_000_000;
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < 5 && allocated > 0; window++) {
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < calls; i++) {
+                metrics.record(i % SERVER_COUNT, 10.0 + (i % 97));
+            }
+            long after = threadBean.getCurrentThreadAllocatedBytes();
+            long overhead = threadBean.getCurrentThreadAllocatedBytes() - after;
+            allocated = Math.min(allocated, after - before - overhead);
+        }
+
+        assertTrue(allocated < 1_024,
+                "record should allocate zero bytes per call, measured " + allocated + " bytes in total");
+    }
+
     // ─── Round-Robin Distribution Test ───────────────────────────────────────
 
     @Test
@@ -198,6 +583,249 @@ class LoadBalancerTest {
         }
     }
 
+    // ─── UCB Tests ────────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Discounted and sliding-window UCB should follow a server that degrades")
+    void testUcbAdaptsToDrift() {
+        List<Server> pair = List.of(servers.get(0), servers.get(1));
+        LoadBalancer[] balancers = {
+                new DiscountedUcbLoadBalancer(2, 0.99, 0.3),
+                new SlidingWindowUcbLoadBalancer(2, 200, 0.3)
+        };
+        for (LoadBalancer ucb : balancers) {
+            // Untried servers have an infinite index and go first
+            assertEquals(0, ucb.selectServer(pair));
+            ucb.updateReward(0, 20.0);
+            assertEquals(1, ucb.selectServer(pair));
+            ucb.updateReward(1, 60.0);
+
+            int[] before = new int[2];
+            for (int i = 0; i < 2_000; i++) {
+                int s = ucb.selectServer(pair);
+                before[s]++;
+                ucb.updateReward(s, s == 0 ? 20.0 : 60.0);
+            }
+            assertTrue(before[0] > 1_800, ucb.getAlgorithmName() + " should exploit server 0: " + Arrays.toString(before));
+
+            // Server 0 degrades to 200 ms: the old evidence must fade
+            int[] after = new int[2];
+            for (int i = 0; i < 2_000; i++) {
+                int s = ucb.selectServer(pair);
+                if (i >= 1_000) after[s]++;
+                ucb.updateReward(s, s == 0 ? 200.0 : 60.0);
+            }
+            assertTrue(after[1] > 900, ucb.getAlgorithmName() + " should move to server 1: " + Arrays.toString(after));
+        }
+    }
+
+    @Test
+    @DisplayName("Discounted UCB statistics should stay exact across rescaling and forget idle servers")
+    void testDiscountedUcbRescaleAndForgetting() {
+        // γ = 0.5 pushes the global scale past its rescale threshold every ~330 updates
+        DiscountedUcbLoadBalancer ucb = new DiscountedUcbLoadBalancer(2, 0.5, 0.0);
+        ucb.updateReward(1, 10.0);
+        for (int i = 0; i < 5_000; i++) ucb.updateReward(0, 30.0);
+
+        assertEquals(2.0, ucb.getDiscountedCount(0), 1e-9, "Σ γ^k → 1 / (1-γ)");
+        assertEquals(-0.30, ucb.getMeanRewards()[0], 1e-12, "reward = -latency / 100");
+        assertEquals(0.0, ucb.getDiscountedCount(1), 0.0, "Weight underflowed: server 1 is forgotten");
+        assertEquals(1, ucb.selectServer(List.of(servers.get(0), servers.get(1))),
+                "A forgotten server is tried again even without exploration bonus");
+
+        ucb.reset();
+        assertEquals(0.0, ucb.getDiscountedCount(0), 0.0);
+    }
+
+    @Test
+    @DisplayName("Sliding-window UCB should count exactly the last W observations")
+    void testSlidingWindowUcbWindow() {
+        SlidingWindowUcbLoadBalancer ucb = new SlidingWindowUcbLoadBalancer(SERVER_COUNT, 50, 0.3);
+        Random random = new Random(5);
+        int[] history = new int[1_000];
+        for (int t = 0; t < history.length; t++) {
+            history[t] = random.nextInt(SERVER_COUNT);
+            ucb.updateReward(history[t], 10.0 + history[t]);
+        }
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            int expected = 0;
+            for (int t = history.length - 50; t < history.length; t++) if (history[t] == i) expected++;
+            assertEquals(expected, ucb.getWindowCount(i), "Window count of server " + i);
+            if (expected > 0) {
+                assertEquals(-(10.0 + i) / 100.0, ucb.getMeanRewards()[i], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("UCB balancers should beat Softmax in the drifting, degrading simulation")
+    void testUcbBeatsSoftmaxInSimulation() {
+        Simulation sim = new Simulation(SERVER_COUNT, 10_000, true, 1_000);
+        List<LoadBalancer> balancers = List.of(
+                new SoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.15),
+                new DiscountedUcbLoadBalancer(SERVER_COUNT),
+                new SlidingWindowUcbLoadBalancer(SERVER_COUNT));
+        List<MetricsCollector> results = sim.runAll(balancers);
+
+        double softmaxMean = results.get(0).getMeanLatency();
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i).getMeanLatency() < softmaxMean,
+                    results.get(i).getAlgorithmName() + " " + results.get(i).getMeanLatency() + " vs Softmax " + softmaxMean);
+        }
+    }
+
+    // ─── Thompson Sampling Tests ──────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Thompson sampling should pick each server with its posterior probability of being fastest")
+    void testThompsonSamplingPosteriorProbability() {
+        // γ = 1: no discounting, so the posterior stays fixed while we only select
+        ThompsonSamplingLoadBalancer ts = new ThompsonSamplingLoadBalancer(2, 1.0, 3L);
+        for (int i = 0; i < 50; i++) {
+            ts.updateReward(0, 40.0);
+            ts.updateReward(0, 60.0);
+            ts.updateReward(1, 42.0);
+            ts.updateReward(1, 62.0);
+        }
+        assertEquals(100.0, ts.getEffectiveCount(0), 1e-9);
+        assertEquals(50.0, ts.getPosteriorMeans()[0], 0.01);
+
+        // Mean 50 vs 52, s = 10, n = 100: the posterior means differ by ~2 with sd ~√2
+        int selections = 100_000;
+        int firstChosen = 0;
+        List<Server> pair = List.of(servers.get(0), servers.get(1));
+        for (int i = 0; i < selections; i++) {
+            if (ts.selectServer(pair) == 0) firstChosen++;
+        }
+        double expected = 0.9207;   // Φ(2 / √2)
+        assertEquals(expected, (double) firstChosen / selections, 0.01);
+
+        // Same seed after reset: identical draws
+        ts.reset();
+        ThompsonSamplingLoadBalancer fresh = new ThompsonSamplingLoadBalancer(2, 1.0, 3L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(fresh.selectServer(pair), ts.selectServer(pair));
+        }
+    }
+
+    @Test
+    @DisplayName("Discounted Thompson sampling should follow a server that degrades")
+    void testThompsonSamplingAdaptsToDrift() {
+        List<Server> pair = List.of(servers.get(0), servers.get(1));
+        ThompsonSamplingLoadBalancer ts = new ThompsonSamplingLoadBalancer(2, 0.99, 11L);
+        Random latencyNoise = new Random(4);
+
+        int[] before = new int[2];
+        for (int i = 0; i < 2_000; i++) {
+            int s = ts.selectServer(pair);
+            before[s]++;
+            ts.updateReward(s, (s == 0 ? 20.0 : 60.0) + 5 * latencyNoise.nextGaussian());
+        }
+        assertTrue(before[0] > 1_800, "Should exploit server 0: " + Arrays.toString(before));
+
+        int[] after = new int[2];
+        for (int i = 0; i < 2_000; i++) {
+            int s = ts.selectServer(pair);
+            if (i >= 1_000) after[s]++;
+            ts.updateReward(s, (s == 0 ? 200.0 : 60.0) + 5 * latencyNoise.nextGaussian());
+        }
+        assertTrue(after[1] > 900, "Should move to server 1: " + Arrays.toString(after));
+    }
+
+    @Test
+    @DisplayName("Thompson sampling should beat Softmax in the drifting, degrading simulation")
+    void testThompsonSamplingBeatsSoftmaxInSimulation() {
+        Simulation sim = new Simulation(SERVER_COUNT, 10_000, true, 1_000);
+        List<MetricsCollector> results = sim.runAll(List.of(
+                new SoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.15),
+                new ThompsonSamplingLoadBalancer(SERVER_COUNT)));
+
+        assertTrue(results.get(1).getMeanLatency() < results.get(0).getMeanLatency(),
+                "Thompson " + results.get(1).getMeanLatency() + " vs Softmax " + results.get(0).getMeanLatency());
+        assertTrue(results.get(1).getPercentile(99) < results.get(0).getPercentile(99));
+    }
+
+    // ─── Batch Selection Tests ────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("Round-Robin batch selection must continue the single-call sequence")
+    void testRoundRobinBatchMatchesSequential() {
+        RoundRobinLoadBalancer sequential = new RoundRobinLoadBalancer();
+        RoundRobinLoadBalancer batched = new RoundRobinLoadBalancer();
+        batched.selectServer(servers);
+        sequential.selectServer(servers);
+
+        int[] out = new int[13];
+        batched.selectServers(servers, out, out.length);
+        for (int i = 0; i < out.length; i++) {
+            assertEquals(sequential.selectServer(servers), out[i], "Batch slot " + i);
+        }
+        assertEquals(sequential.selectServer(servers), batched.selectServer(servers),
+                "Counter should advance by the batch size");
+    }
+
+    @Test
+    @DisplayName("Round-Robin must never return a negative index when its counter starts near Integer.MAX_VALUE")
+    void testRoundRobinCounterWraps() {
+        RoundRobinLoadBalancer rr = new RoundRobinLoadBalancer(Integer.MAX_VALUE - 3);
+        int expected = Math.floorMod(Integer.MAX_VALUE - 3, SERVER_COUNT);
+        int[] out = new int[7];
+        for (int round = 0; round < 20; round++) {
+            int single = rr.selectServer(servers);
+            assertEquals(expected, single, "Single selection in round " + round);
+            expected = (expected + 1) % SERVER_COUNT;
+
+            rr.selectServers(servers, out, out.length);
+            for (int i = 0; i < out.length; i++) {
+                assertEquals(expected, out[i], "Batch slot " + i + " in round " + round);
+                expected = (expected + 1) % SERVER_COUNT;
+            }
+        }
+
+        // Concurrent callers racing across the old MAX_VALUE boundary
+        RoundRobinLoadBalancer concurrent = new RoundRobinLoadBalancer(Integer.MAX_VALUE - 1_000);
+        AtomicLong outOfRange = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                int[] batch = new int[3];
+                for (int i = 0; i < 100_000; i++) {
+                    int single = concurrent.selectServer(servers);
+                    if (single < 0 || single >= SERVER_COUNT) outOfRange.incrementAndGet();
+                    concurrent.selectServers(servers, batch, batch.length);
+                    for (int index : batch) {
+                        if (index < 0 || index >= SERVER_COUNT) outOfRange.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            assertDoesNotThrow(() -> thread.join());
+        }
+        assertEquals(0, outOfRange.get(), "Every index must stay in [0, n)");
+    }
+
+    @Test
+    @DisplayName("Softmax batch selection must draw from the Softmax distribution")
+    void testSoftmaxBatchMatchesDistribution() {
+        SoftmaxLoadBalancer softmax = new SoftmaxLoadBalancer(SERVER_COUNT, 0.5, 0.5, 0.0, 1.0);
+        trainFixedLatencies(softmax);
+
+        int draws = 100_000;
+        int[] out = new int[draws];
+        softmax.selectServers(servers, out, draws);
+
+        int[] counts = new int[SERVER_COUNT];
+        for (int s : out) counts[s]++;
+        assertArrayEquals(counts, softmax.getSelectionCounts(), "Batch should update selection counts");
+        assertEquals(draws, softmax.getStepCount(), "Batch should advance the step count");
+
+        double chiSquare = chiSquare(counts, softmax.getProbabilities(SERVER_COUNT), draws);
+        assertTrue(chiSquare < CHI_SQUARE_CRITICAL_4DF,
+                "Batched draws should fit the Softmax distribution, χ² = " + chiSquare);
+    }
+
     // ─── Simulation Integration Test ─────────────────────────────────────────
 
     @Test
@@ -222,6 +850,238 @@ class LoadBalancerTest {
                 "Metrics should record exactly 200 requests");
     }
 
+    @Test
+    @DisplayName("Parallel runAll must be bit-identical to sequential runs")
+    void testParallelRunAllMatchesSequential() {
+        Simulation sim = new Simulation(SERVER_COUNT, 5_000, true, 500, 7L);
+
+        List<MetricsCollector> sequential = List.of(
+                sim.run(new RoundRobinLoadBalancer()),
+                sim.run(new RandomLoadBalancer()),
+                sim.run(new SoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.15)));
+        List<MetricsCollector> parallel = sim.runAll(List.of(
+                new RoundRobinLoadBalancer(),
+                new RandomLoadBalancer(),
+                new SoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.15)), 3);
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getAlgorithmName(), parallel.get(i).getAlgorithmName(),
+                    "Results must keep input order");
+            assertArrayEquals(sequential.get(i).getLatencyArray(), parallel.get(i).getLatencyArray(),
+                    sequential.get(i).getAlgorithmName() + " latencies must match bit for bit");
+            assertEquals(sequential.get(i).getServerSelections(), parallel.get(i).getServerSelections());
+        }
+    }
+
+    @Test
+    @DisplayName("Hyperparameter sweep should cover the space and rank runs by each objective")
+    void testHyperparameterSweep() {
+        List<HyperparameterSweep.Configuration> grid = HyperparameterSweep.grid(
+                new double[]{0.5, 2.0}, new double[]{0.05, 0.1}, new double[]{0.0, 0.001}, new double[]{0.1, 0.3});
+        assertEquals(16, grid.size());
+
+        // Latin hypercube: each of the n strata of every dimension holds exactly one sample
+        int n = 50;
+        List<HyperparameterSweep.Configuration> lhs = HyperparameterSweep.latinHypercube(n,
+                HyperparameterSweep.ParameterRange.linear(0.0, 1.0),
+                HyperparameterSweep.ParameterRange.linear(0.0, 1.0),
+                HyperparameterSweep.ParameterRange.logarithmic(1e-4, 1e-1),
+                HyperparameterSweep.ParameterRange.linear(0.0, 1.0), 3L);
+        boolean[] seen = new boolean[n];
+        for (HyperparameterSweep.Configuration c : lhs) {
+            int stratum = (int) (c.getLearningRate() * n);
+            assertFalse(seen[stratum], "Stratum " + stratum + " sampled twice");
+            seen[stratum] = true;
+            assertTrue(c.getTemperatureDecayRate() >= 1e-4 && c.getTemperatureDecayRate() <= 1e-1);
+        }
+
+        Simulation sim = new Simulation(SERVER_COUNT, 1_000, true, 250, 5L);
+        List<HyperparameterSweep.Result> results = new HyperparameterSweep(sim, 4).run(grid);
+        assertEquals(grid.size(), results.size());
+
+        // Same numbers as a plain sequential run of that configuration
+        HyperparameterSweep.Configuration first = grid.get(0);
+        MetricsCollector direct = sim.run(new SoftmaxLoadBalancer(SERVER_COUNT, first.getInitialTemperature(),
+                first.getMinTemperature(), first.getTemperatureDecayRate(), first.getLearningRate()));
+        assertEquals(direct.getMeanLatency(), results.get(0).getMeanLatency(), 0.0);
+        assertEquals(direct.getCumulativeRegret(), results.get(0).getCumulativeRegret(), 0.0);
+
+        for (HyperparameterSweep.Objective objective : HyperparameterSweep.Objective.values()) {
+            List<HyperparameterSweep.Result> ranked = HyperparameterSweep.rank(results, objective);
+            for (int i = 1; i < ranked.size(); i++) {
+                assertTrue(objective.comparator().compare(ranked.get(i - 1), ranked.get(i)) <= 0,
+                        objective + " ranking must be best-first");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Monte Carlo runner should stop early once confidence intervals separate")
+    void testMonteCarloEarlyStopping() {
+        Simulation sim = new Simulation(SERVER_COUNT, 2_000, true, 400);
+        Map<String, LongFunction<? extends LoadBalancer>> algorithms = new LinkedHashMap<>();
+        algorithms.put("Random", RandomLoadBalancer::new);
+        algorithms.put("Softmax", seed -> new SoftmaxLoadBalancer(SERVER_COUNT, 2.0, 0.1, 0.001, 0.15,
+                SoftmaxLoadBalancer.SamplingStrategy.INVERSE_CDF, seed));
+
+        MonteCarloRunner.Report report = new MonteCarloRunner(sim, 1L, 4, 64, 0.95,
+                MonteCarloRunner.Metric.MEAN_LATENCY, 2).run(algorithms);
+        assertTrue(report.isSeparated(), "Softmax vs Random should separate");
+        assertTrue(report.getReplications() < 64, "Should stop well before the limit");
+
+        MonteCarloRunner.Estimate softmax = report.getSummaries().get(1).getEstimate(MonteCarloRunner.Metric.MEAN_LATENCY);
+        MonteCarloRunner.Estimate faster = report.getDifference(1, 0);
+        assertTrue(faster.getUpper() < 0, "Softmax should be reliably faster than Random: " + faster);
+        assertEquals(-faster.getMean(), report.getDifference(0, 1).getMean(), 0.0);
+        assertTrue(report.getComparisonLevel() > report.getConfidenceLevel(),
+                "Repeated checks should widen each difference interval");
+
+        // Same master seed, different parallelism: identical numbers
+        MonteCarloRunner.Report again = new MonteCarloRunner(sim, 1L, 4, 64, 0.95,
+                MonteCarloRunner.Metric.MEAN_LATENCY, 1).run(algorithms);
+        assertEquals(report.getReplications(), again.getReplications());
+        assertEquals(softmax.getMean(),
+                again.getSummaries().get(1).getEstimate(MonteCarloRunner.Metric.MEAN_LATENCY).getMean(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Monte Carlo runner should use every replication when algorithms are equivalent")
+    void testMonteCarloRunsToLimitWhenTied() {
+        Simulation sim = new Simulation(SERVER_COUNT, 1_000, false, 100);
+        Map<String, LongFunction<? extends LoadBalancer>> algorithms = new LinkedHashMap<>();
+        algorithms.put("Random A", RandomLoadBalancer::new);
+        algorithms.put("Random B", RandomLoadBalancer::new);
+
+        MonteCarloRunner.Report report = new MonteCarloRunner(sim, 9L, 4, 12).run(algorithms);
+        assertFalse(report.isSeparated(), "Identical policies should not be declared different");
+        assertEquals(12, report.getReplications());
+    }
+
+    @Test
+    @DisplayName("Metrics collector rolling window and raw series must stay exact")
+    void testMetricsRollingWindowAndSeries() {
+        MetricsCollector metrics = new MetricsCollector("test", 20.0, 100);
+        int total = 150_000;   // spans several storage chunks and many window laps
+        for (int i = 0; i < total; i++) {
+            metrics.record(i % SERVER_COUNT, 10.0 + (i % 37));
+        }
+
+        double expectedRolling = 0.0;
+        for (int i = total - 100; i < total; i++) expectedRolling += 10.0 + (i % 37);
+        expectedRolling /= 100;
+        assertEquals(expectedRolling, metrics.getRollingAverage(), 1e-9,
+                "Rolling average should cover exactly the last 100 requests");
+
+        assertEquals(total, metrics.getTotalRequests());
+        assertEquals(10.0 + (123_456 % 37), metrics.getLatency(123_456), 0.0);
+        assertEquals(123_456 % SERVER_COUNT, metrics.getServerSelection(123_456));
+        assertArrayEquals(new long[]{30_000, 30_000, 30_000, 30_000, 30_000},
+                metrics.getSelectionCounts(SERVER_COUNT));
+    }
+
+    @Test
+    @DisplayName("Histogram percentiles must match exact percentiles within 3 significant digits")
+    void testHistogramPercentilesMatchExact() {
+        MetricsCollector retained = new MetricsCollector("raw", 20.0, 100);
+        MetricsCollector streaming = new MetricsCollector("streaming", 20.0, 100, false, 3);
+        Random rng = new Random(7L);
+        for (int i = 0; i < 200_000; i++) {
+            // Log-normal latencies spanning sub-millisecond to multi-second values
+            double latency = Math.exp(3.0 + 1.5 * rng.nextGaussian());
+            retained.record(i % SERVER_COUNT, latency);
+            streaming.record(i % SERVER_COUNT, latency);
+        }
+
+        for (double p : new double[]{50, 95, 99, 99.9}) {
+            double exact = retained.getExactPercentile(p);
+            double tolerance = Math.max(0.001, exact * 1e-3);
+            assertEquals(exact, retained.getPercentile(p), tolerance, "P" + p + " with raw retention");
+            assertEquals(exact, streaming.getPercentile(p), tolerance, "P" + p + " without raw retention");
+        }
+        assertEquals(retained.getMaxLatency(), streaming.getMaxLatency(), 0.0, "Max is tracked exactly");
+        assertThrows(IllegalStateException.class, () -> streaming.getLatency(0),
+                "Raw accessors require retention");
+    }
+
+    @Test
+    @DisplayName("Merged t-digest tail percentiles must stay within documented rank error")
+    void testTDigestAccuracyAcrossShards() {
+        MetricsCollector whole = new MetricsCollector("whole", 20.0, 100);
+        List<MetricsCollector> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) shards.add(new MetricsCollector("shard-" + i, 20.0, 100, false, 3));
+
+        Random rng = new Random(11L);
+        int total = 400_000;
+        for (int i = 0; i < total; i++) {
+            double latency = Math.exp(3.0 + 1.5 * rng.nextGaussian());
+            whole.record(i % SERVER_COUNT, latency);
+            shards.get(i % 4).record(i % SERVER_COUNT, latency);
+        }
+
+        TDigest merged = MetricsCollector.mergeLatencyDigests(shards);
+        assertEquals(total, merged.getTotalWeight(), 0.0);
+        double[] sorted = whole.getLatencyArray();
+        Arrays.sort(sorted);
+
+        // Documented bounds: P99 within ±0.05% rank, P99.9 within ±0.01% rank
+        double[][] bounds = {{99, 5e-4}, {99.9, 1e-4}};
+        for (double[] bound : bounds) {
+            for (TDigest digest : List.of(whole.getLatencyDigest(), merged)) {
+                double estimate = digest.percentile(bound[0]);
+                int rank = Arrays.binarySearch(sorted, estimate);
+                if (rank < 0) rank = -rank - 1;
+                double rankError = Math.abs((double) rank / total - bound[0] / 100.0);
+                assertTrue(rankError <= bound[1],
+                        "P" + bound[0] + " rank error " + rankError + " exceeds " + bound[1]
+                                + " (estimate " + estimate + ", exact " + whole.getExactPercentile(bound[0]) + ")");
+            }
+        }
+
+        // Per-server sketches cover exactly the requests each server handled
+        assertEquals(total / SERVER_COUNT, whole.getServerLatencyDigest(2).getTotalWeight(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Running summary statistics should match a two-pass computation")
+    void testRunningSummaryStatistics() {
+        MetricsCollector retained = new MetricsCollector("retained", 10.0, 100);
+        MetricsCollector streaming = new MetricsCollector("streaming", 10.0, 100, false, 3);
+        Random random = new Random(7);
+        int total = 50_000;
+        double[] values = new double[total];
+        for (int i = 0; i < total; i++) {
+            // Large offset stresses the naive sum-of-squares formula; Welford stays stable
+            values[i] = 1_000_000.0 + random.nextGaussian() * 5.0;
+            retained.record(i % SERVER_COUNT, values[i]);
+            streaming.record(i % SERVER_COUNT, values[i]);
+        }
+
+        double sum = 0.0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        for (double v : values) {
+            sum += v;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        double mean = sum / total;
+        double squares = 0.0;
+        for (double v : values) squares += (v - mean) * (v - mean);
+        double stdDev = Math.sqrt(squares / total);
+
+        for (MetricsCollector collector : List.of(retained, streaming)) {
+            assertEquals(mean, collector.getMeanLatency(), 1e-6);
+            assertEquals(min, collector.getMinLatency(), 0.0);
+            assertEquals(max, collector.getMaxLatency(), 0.0);
+            assertEquals(stdDev, collector.getStdDev(), 1e-6);
+            assertEquals(sum, collector.getTotalLatency(), 1e-3);
+        }
+
+        MetricsCollector empty = new MetricsCollector("empty", 10.0, 100);
+        assertEquals(0.0, empty.getMeanLatency(), 0.0);
+        assertEquals(0.0, empty.getStdDev(), 0.0);
+        assertEquals(0.0, empty.getMinLatency(), 0.0);
+    }
+
     @Test
     @DisplayName("Softmax selection counts should sum to total requests")
     void testSelectionCountsSum() {
@@ -241,6 +1101,297 @@ class LoadBalancerTest {
                 "Total selection counts should equal total requests");
     }
 
+    // ─── Event-Driven Simulation Tests ────────────────────────────────────────
+
+    @Test
+    @DisplayName("Arrival processes should match their configured long-run rates")
+    void testArrivalProcessRates() {
+        List<ArrivalProcess> processes = List.of(
+                new PoissonArrivalProcess(2_000),
+                new BurstyArrivalProcess(1_000, 10_000, 90, 10),
+                new DiurnalArrivalProcess(2_000, 0.8, 1_000));
+
+        for (ArrivalProcess process : processes) {
+            Random random = new Random(11);
+            double now = 0.0;
+            int arrivals = 400_000;
+            for (int i = 0; i < arrivals; i++) {
+                double next = process.nextArrivalTime(now, random);
+                assertTrue(next >= now, "Arrivals must move forward in time");
+                now = next;
+            }
+            double observedRate = arrivals / now;
+            assertEquals(process.getMeanRate(), observedRate, 0.03 * process.getMeanRate(),
+                    process.getClass().getSimpleName() + " rate");
+        }
+    }
+
+    @Test
+    @DisplayName("Event-driven simulation should overlap requests and be reproducible per seed")
+    void testEventDrivenSimulation() {
+        int requests = 20_000;
+        EventDrivenSimulation simulation = new EventDrivenSimulation(
+                SERVER_COUNT, requests, new PoissonArrivalProcess(500), true, 4_000, 42L);
+
+        MetricsCollector first = simulation.run(new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.001, 0.15));
+        assertEquals(requests, first.getTotalRequests(), "Every arrival should complete");
+        assertEquals(2L * requests, simulation.getEventCount());
+        assertTrue(simulation.getPeakInFlight() > 10,
+                "At 500 req/s with tens of ms latency, requests must overlap");
+        double firstVirtualTime = simulation.getVirtualTime();
+
+        // Completions are recorded when they happen, not in arrival order
+        MetricsCollector second = simulation.run(new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.001, 0.15));
+        assertArrayEquals(first.getLatencyArray(), second.getLatencyArray(), "Same seed must replay exactly");
+        assertEquals(firstVirtualTime, simulation.getVirtualTime(), 0.0);
+    }
+
+    @Test
+    @DisplayName("Server queues should match M/M/1 and M/M/2 mean sojourn times")
+    void testServerQueueMatchesQueueingTheory() {
+        // μ = 1/20 per ms. M/M/1 at ρ = 0.5: E[T] = 1/(μ - λ) = 40 ms, for FIFO and PS alike.
+        assertEquals(40.0, meanSojourn(QueueDiscipline.FIFO, 1, 0.025), 2.0);
+        assertEquals(40.0, meanSojourn(QueueDiscipline.PROCESSOR_SHARING, 1, 0.025), 2.0);
+        // M/M/2 at λ = 0.05: Erlang C wait probability 1/3, E[T] = 20 + (1/3)/(2μ - λ) ≈ 26.67 ms
+        assertEquals(20.0 + (1.0 / 3.0) / 0.05, meanSojourn(QueueDiscipline.FIFO, 2, 0.05), 1.0);
+    }
+
+    private static double meanSojourn(QueueDiscipline discipline, int workers, double arrivalRatePerMs) {
+        Server server = new Server(0, 20.0, 0.0, 0.0, 0.0);
+        ServerQueue queue = new ServerQueue(server, workers, discipline);
+        Random random = new Random(5);
+        double nextArrival = ArrivalProcess.exponential(random, arrivalRatePerMs);
+        int departures = 300_000;
+        double totalSojourn = 0.0;
+        for (int done = 0; done < departures; ) {
+            if (nextArrival <= queue.nextDepartureTime()) {
+                queue.arrive(nextArrival, server.sampleExponentialServiceTime());
+                nextArrival += ArrivalProcess.exponential(random, arrivalRatePerMs);
+            } else {
+                totalSojourn += queue.depart(queue.nextDepartureTime());
+                done++;
+            }
+        }
+        return totalSojourn / departures;
+    }
+
+    @Test
+    @DisplayName("Herding all traffic onto the fastest server should be punished by its queue")
+    void testQueueingPunishesHerding() {
+        LoadBalancer herd = new LoadBalancer() {
+            @Override public int selectServer(List<Server> servers) { return 0; }
+            @Override public void updateReward(int serverIndex, double latency) {}
+            @Override public String getAlgorithmName() { return "Always Server-0"; }
+            @Override public void reset() {}
+        };
+        int requests = 20_000;
+        ArrivalProcess arrivals = new PoissonArrivalProcess(45);   // server 0 alone handles ~50 req/s
+
+        EventDrivenSimulation unbounded = new EventDrivenSimulation(SERVER_COUNT, requests, arrivals, false, 1, 3L);
+        EventDrivenSimulation queued = new EventDrivenSimulation(SERVER_COUNT, requests, arrivals,
+                QueueDiscipline.FIFO, 1, true, false, 1, 3L);
+
+        double unboundedMean = unbounded.run(herd).getMeanLatency();
+        double herdMean = queued.run(herd).getMeanLatency();
+
+        assertTrue(herdMean > 3 * unboundedMean,
+                "Queueing delay should dominate at high utilization: " + herdMean + " vs " + unboundedMean);
+        assertTrue(herdMean > queued.getServers().get(4).getBaseLatency(),
+                "The herded 'fast' server should end up slower than the slowest idle one");
+        assertEquals(0, queued.getInFlight(0), "Every request should have departed");
+    }
+
+    @Test
+    @DisplayName("Power-of-two choices should track in-flight load and pick the cheaper candidate")
+    void testPowerOfTwoChoicesBookkeeping() {
+        int n = 1_000;
+        List<Server> pool = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) pool.add(new Server(i, 50.0, 1.0, 0.0, 0.0));
+        PowerOfTwoChoicesLoadBalancer p2c = new PowerOfTwoChoicesLoadBalancer(n, 1.0);
+
+        // Server i always answers in 1 + i ms: the lower index of each pair should win
+        for (int i = 0; i < n; i++) p2c.updateReward(i, 1.0 + i);
+        int selections = 20_000;
+        long sumOfChoices = 0;
+        for (int i = 0; i < selections; i++) {
+            int chosen = p2c.selectServer(pool);
+            p2c.updateReward(chosen, 1.0 + chosen);
+            sumOfChoices += chosen;
+        }
+        // E[min of two distinct uniform picks] ≈ n/3, versus n/2 for one pick
+        assertEquals(n / 3.0, (double) sumOfChoices / selections, n * 0.02);
+
+        int[] started = new int[selections];
+        for (int i = 0; i < selections; i++) {
+            started[i] = p2c.selectServer(pool);
+            p2c.onRequestStarted(started[i]);
+        }
+        int inFlight = 0;
+        for (int i = 0; i < n; i++) inFlight += p2c.getInFlight(i);
+        assertEquals(selections, inFlight, "Each request is in flight from start to finish");
+
+        // Rewards alone do not end a request; only the finish hook does
+        for (int i = 0; i < selections; i++) p2c.updateReward(started[i], 1.0 + started[i]);
+        inFlight = 0;
+        for (int i = 0; i < n; i++) inFlight += p2c.getInFlight(i);
+        assertEquals(selections, inFlight, "Rewards must not touch the in-flight counts");
+        for (int i = 0; i < selections; i++) p2c.onRequestFinished(started[i]);
+        for (int i = 0; i < n; i++) assertEquals(0, p2c.getInFlight(i));
+
+        p2c.selectServer(pool);
+        p2c.onRequestStarted(0);
+        p2c.reset();
+        for (int i = 0; i < n; i++) assertEquals(0, p2c.getInFlight(i));
+    }
+
+    @Test
+    @DisplayName("Power-of-two choices should stop picking a cold server once requests queue on it")
+    void testPowerOfTwoChoicesPenalizesColdLoadedServer() {
+        List<Server> pair = List.of(servers.get(0), servers.get(1));
+        PowerOfTwoChoicesLoadBalancer p2c = new PowerOfTwoChoicesLoadBalancer(2, 0.5);
+        p2c.updateReward(1, 50.0);      // server 1 answers in 50 ms; server 0 has never answered
+
+        // Server 0 is free to probe while idle, but never answers: its requests pile up
+        int coldPicks = 0;
+        for (int i = 0; i < 1_000; i++) {
+            int chosen = p2c.selectServer(pair);
+            p2c.onRequestStarted(chosen);
+            if (chosen == 0) {
+                coldPicks++;
+            } else {
+                p2c.onRequestFinished(chosen);
+                p2c.updateReward(chosen, 50.0);
+            }
+        }
+        assertEquals(1, coldPicks, "Only the first probe should reach the silent server");
+        assertEquals(1, p2c.getInFlight(0));
+    }
+
+    @Test
+    @DisplayName("Power-of-two choices should beat full Softmax on tail latency under queueing load")
+    void testPowerOfTwoChoicesTailLatencyUnderQueueing() {
+        EventDrivenSimulation sim = new EventDrivenSimulation(SERVER_COUNT, 20_000, new PoissonArrivalProcess(60),
+                QueueDiscipline.FIFO, 1, true, false, 1, 3L);
+
+        MetricsCollector softmax = sim.run(new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.001, 0.15));
+        PowerOfTwoChoicesLoadBalancer p2c = new PowerOfTwoChoicesLoadBalancer(SERVER_COUNT, 0.15);
+        MetricsCollector powerOfTwo = sim.run(p2c);
+
+        assertTrue(powerOfTwo.getPercentile(99) * 2 < softmax.getPercentile(99),
+                "P2C P99 " + powerOfTwo.getPercentile(99) + " vs Softmax P99 " + softmax.getPercentile(99));
+        assertTrue(powerOfTwo.getMeanLatency() < softmax.getMeanLatency());
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            assertEquals(0, p2c.getInFlight(i), "All requests completed, nothing left in flight");
+        }
+    }
+
+    @Test
+    @DisplayName("Peak EWMA should jump to latency peaks, decay with time and penalize pending requests")
+    void testPeakEwmaCostAndPending() {
+        AtomicLong nanos = new AtomicLong();
+        List<Server> pair = List.of(servers.get(0), servers.get(1));
+        PeakEwmaLoadBalancer ewma = new PeakEwmaLoadBalancer(2, 1_000.0, nanos::get, 2, 1L);
+
+        // A server that has never answered costs nothing, unless requests are already pending on it
+        ewma.onRequestStarted(0);
+        assertEquals(1, ewma.selectServer(pair), "Unknown server with a pending request is penalized");
+        ewma.onRequestFinished(0);
+        ewma.onRequestFinished(0);
+        assertEquals(0, ewma.getPending(0), "Pending never drops below zero");
+
+        ewma.updateReward(0, 10.0);
+        ewma.updateReward(1, 30.0);
+        assertEquals(0, ewma.selectServer(pair));
+
+        // cost · (pending + 1): three outstanding requests make the fast server look slower
+        for (int i = 0; i < 3; i++) ewma.onRequestStarted(0);
+        assertEquals(40.0, ewma.getLoad(0), 1e-9);
+        assertEquals(1, ewma.selectServer(pair));
+        for (int i = 0; i < 3; i++) ewma.onRequestFinished(0);
+        assertEquals(0, ewma.selectServer(pair));
+
+        // Peaks are taken at once; lower samples are blended by elapsed time, w = exp(-Δt/τ)
+        ewma.updateReward(0, 200.0);
+        assertEquals(200.0, ewma.getCost(0), 1e-9);
+        nanos.addAndGet((long) (Math.log(2) * 1_000_000_000L));
+        assertEquals(100.0, ewma.getCost(0), 1e-6, "Half-decayed after τ·ln 2 without samples");
+        ewma.updateReward(0, 10.0);
+        assertEquals(105.0, ewma.getCost(0), 1e-6);
+
+        ewma.reset();
+        assertEquals(0.0, ewma.getCost(0), 0.0);
+        assertEquals(0.0, ewma.getCost(1), 0.0);
+    }
+
+    @Test
+    @DisplayName("Peak EWMA on the simulation's virtual clock should beat full Softmax on tail latency")
+    void testPeakEwmaTailLatencyUnderQueueing() {
+        EventDrivenSimulation sim = new EventDrivenSimulation(SERVER_COUNT, 20_000, new PoissonArrivalProcess(60),
+                QueueDiscipline.FIFO, 1, true, false, 1, 3L);
+
+        MetricsCollector softmax = sim.run(new SoftmaxLoadBalancer(SERVER_COUNT, 1.0, 0.1, 0.001, 0.15));
+        PeakEwmaLoadBalancer ewma = new PeakEwmaLoadBalancer(SERVER_COUNT, 1_000.0, sim.virtualClock(), 2, 7L);
+        MetricsCollector peakEwma = sim.run(ewma);
+        MetricsCollector again = sim.run(ewma);
+
+        assertTrue(peakEwma.getPercentile(99) * 2 < softmax.getPercentile(99),
+                "Peak EWMA P99 " + peakEwma.getPercentile(99) + " vs Softmax P99 " + softmax.getPercentile(99));
+        assertEquals(peakEwma.getMeanLatency(), again.getMeanLatency(), 0.0, "Virtual clock makes runs reproducible");
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            assertEquals(0, ewma.getPending(i), "Every started request was finished");
+        }
+    }
+
+    @Test
+    @DisplayName("Least outstanding should pick the server with the fewest requests in flight")
+    void testLeastOutstandingBookkeeping() {
+        LeastOutstandingLoadBalancer full = new LeastOutstandingLoadBalancer(SERVER_COUNT, SERVER_COUNT, 1L);
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            if (i != 3) full.onRequestStarted(i);
+        }
+        assertEquals(3, full.selectServer(servers), "Only server 3 is idle");
+
+        // With every count equal, ties rotate rather than landing on one server
+        full.onRequestStarted(3);
+        int[] picks = new int[SERVER_COUNT];
+        for (int i = 0; i < 1_000; i++) picks[full.selectServer(servers)]++;
+        for (int count : picks) assertTrue(count > 100, "Ties spread: " + Arrays.toString(picks));
+
+        full.onRequestFinished(3);
+        full.onRequestFinished(3);
+        assertEquals(0, full.getOutstanding(3), "Count never drops below zero");
+
+        // Sampled selection on a large pool: never worse than the first candidate, O(d) per call
+        int n = 10_000;
+        List<Server> pool = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) pool.add(new Server(i, 50.0, 1.0, 0.0, 0.0));
+        LeastOutstandingLoadBalancer sampled = new LeastOutstandingLoadBalancer(n);
+        for (int i = 0; i < 5 * n; i++) sampled.onRequestStarted(sampled.selectServer(pool));
+        long max = 0;
+        for (int i = 0; i < n; i++) max = Math.max(max, sampled.getOutstanding(i));
+        assertTrue(max <= 8, "Two choices keep the busiest server close to the average of 5, got " + max);
+
+        sampled.reset();
+        for (int i = 0; i < n; i++) assertEquals(0, sampled.getOutstanding(i));
+    }
+
+    @Test
+    @DisplayName("Least outstanding should beat Round-Robin on tail latency under queueing load")
+    void testLeastOutstandingTailLatencyUnderQueueing() {
+        EventDrivenSimulation sim = new EventDrivenSimulation(SERVER_COUNT, 20_000, new PoissonArrivalProcess(60),
+                QueueDiscipline.FIFO, 1, true, false, 1, 3L);
+
+        MetricsCollector roundRobin = sim.run(new RoundRobinLoadBalancer());
+        LeastOutstandingLoadBalancer lor = new LeastOutstandingLoadBalancer(SERVER_COUNT);
+        MetricsCollector leastOutstanding = sim.run(lor);
+
+        assertTrue(leastOutstanding.getPercentile(99) * 2 < roundRobin.getPercentile(99),
+                "LOR P99 " + leastOutstanding.getPercentile(99) + " vs Round-Robin P99 " + roundRobin.getPercentile(99));
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            assertEquals(0, lor.getOutstanding(i), "Every started request was finished");
+        }
+    }
+
     // ─── Reset Test ───────────────────────────────────────────────────────────
 
     @Test
@@ -0,0 +1,103 @@
+package com.loadbalancer.algorithm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the package-private {@link AtomicQValueStore}: the CAS path, the striped
+ * DoubleAdder fallback taken under contention, and that concurrent updates are never lost.
+ */
+class AtomicQValueStoreTest {
+
+    @Test
+    @DisplayName("get must return base + pending once an update has fallen back")
+    void testGetCombinesBaseAndPending() {
+        AtomicQValueStore store = new AtomicQValueStore(3);
+
+        // CAS path: Q = 0 + 0.5 · (1 - 0) = 0.5, kept in the base slot
+        store.update(1, 1.0, 0.5);
+        assertEquals(0.5, store.get(1), 0.0);
+        assertEquals(0, store.contendedCount(), "An uncontended CAS never needs the fallback");
+
+        // Threshold 0 forces the fallback: delta 0.5 · (1 - 0.5) = 0.25 parked in pending
+        store.update(1, 1.0, 0.5, 0);
+        assertEquals(0.75, store.get(1), 0.0, "base 0.5 + pending 0.25");
+        assertEquals(1, store.contendedCount());
+
+        // A later CAS update must read base + pending too: 0.75 + 0.5 · (1 - 0.75)
+        store.update(1, 1.0, 0.5);
+        assertEquals(0.875, store.get(1), 1e-15);
+        assertEquals(0.0, store.get(0), 0.0, "Neighbouring entries are untouched");
+        assertEquals(0.0, store.get(2), 0.0);
+    }
+
+    @Test
+    @DisplayName("contendedCount must count each server that fell back, once")
+    void testContendedCount() {
+        AtomicQValueStore store = new AtomicQValueStore(5, 0);
+        assertEquals(0, store.contendedCount());
+
+        store.update(0, -0.2, 0.1);
+        store.update(0, -0.2, 0.1);
+        store.update(3, -0.5, 0.1);
+        assertEquals(2, store.contendedCount(), "Servers 0 and 3, each counted once");
+        assertEquals(5, store.size());
+    }
+
+    @Test
+    @DisplayName("clear must zero both the base slots and the pending adders")
+    void testClearEmptiesBaseAndPending() {
+        AtomicQValueStore store = new AtomicQValueStore(4);
+        for (int i = 0; i < 4; i++) {
+            store.update(i, -1.0, 0.3);           // base
+            store.update(i, -1.0, 0.3, 0);        // pending
+        }
+        assertEquals(4, store.contendedCount());
+
+        store.clear();
+        assertEquals(0, store.contendedCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0.0, store.get(i), 0.0, "Q-value " + i + " after clear");
+        }
+
+        // Still usable afterwards, starting from zero
+        store.update(2, -1.0, 0.5);
+        assertEquals(-0.5, store.get(2), 0.0);
+    }
+
+    @Test
+    @DisplayName("Concurrent updates must not be lost on either path")
+    void testConcurrentUpdatesAreNotLost() throws InterruptedException {
+        // With α tiny, Q stays far below the reward, so every update adds almost exactly α:
+        // after N updates Q = 1 - (1-α)^N whatever the interleaving, and one lost update
+        // would leave it α = 1e-9 short
+        double alpha = 1e-9;
+        int threads = 4;
+        int updatesPerThread = 250_000;
+        double expected = 1.0 - Math.pow(1.0 - alpha, (double) threads * updatesPerThread);
+
+        for (int threshold : new int[] {0, 1, Integer.MAX_VALUE}) {
+            AtomicQValueStore store = new AtomicQValueStore(2, threshold);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    for (int i = 0; i < updatesPerThread; i++) {
+                        store.update(0, 1.0, alpha);
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            assertEquals(expected, store.get(0), alpha / 2, "threshold " + threshold);
+            assertEquals(0.0, store.get(1), 0.0, "threshold " + threshold);
+            if (threshold == 0) {
+                assertEquals(1, store.contendedCount(), "Threshold 0 always falls back");
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.loadbalancer.algorithm;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the package-private {@link CandidateSlots}: reproducible per-thread candidate
+ * streams and the never-below-zero counters.
+ */
+class CandidateSlotsTest {
+
+    private static int[] draw(CandidateSlots slots, int n, int requests) {
+        int[] candidates = new int[requests * slots.choices()];
+        for (int r = 0; r < requests; r++) {
+            int first = slots.first(n);
+            for (int c = 0; c < slots.choices(); c++) {
+                candidates[r * slots.choices() + c] = slots.candidate(n, first, c);
+            }
+        }
+        return candidates;
+    }
+
+    @Test
+    @DisplayName("Candidates must be distinct from the first, and replay after reset")
+    void testCandidatesReproducibleAndDistinct() {
+        CandidateSlots slots = new CandidateSlots(10, 1, 2, 42L);
+        int[] run = draw(slots, 10, 1_000);
+        for (int r = 0; r < 1_000; r++) {
+            assertNotEquals(run[2 * r], run[2 * r + 1], "d = 2 must compare two distinct servers");
+        }
+
+        assertArrayEquals(run, draw(new CandidateSlots(10, 1, 2, 42L), 10, 1_000), "Same seed, same stream");
+        slots.reset();
+        assertArrayEquals(run, draw(slots, 10, 1_000), "reset() must rewind to the seed");
+    }
+
+    @Test
+    @DisplayName("Each thread must draw from its own stream")
+    void testThreadsGetSeparateStreams() throws InterruptedException {
+        CandidateSlots slots = new CandidateSlots(1_000, 1, 2, 42L);
+        int[][] runs = new int[2][];
+        Thread[] workers = new Thread[2];
+        for (int t = 0; t < 2; t++) {
+            int thread = t;
+            workers[t] = new Thread(() -> runs[thread] = draw(slots, 1_000, 100));
+            workers[t].start();
+            workers[t].join();
+        }
+        assertFalse(Arrays.equals(runs[0], runs[1]), "Two threads should not replay the same candidates");
+    }
+
+    @Test
+    @DisplayName("Counters must never go below zero, and reset must clear every field")
+    void testCountersAndReset() {
+        CandidateSlots slots = new CandidateSlots(3, 2, 2, 1L);
+        slots.decrement(1, 0);
+        assertEquals(0, slots.get(1, 0), "A decrement without an increment is ignored");
+
+        slots.increment(1, 0);
+        slots.increment(1, 0);
+        slots.decrement(1, 0);
+        assertEquals(1, slots.get(1, 0));
+        assertTrue(slots.compareAndSet(2, 1, 0L, 7L));
+        assertEquals(0, slots.get(2, 0), "Fields of one server are independent");
+
+        slots.reset();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, slots.get(i, 0));
+            assertEquals(0, slots.get(i, 1));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new CandidateSlots(3, CandidateSlots.PADDING + 1, 2, 1L));
+    }
+}